@@ -3,18 +3,30 @@ package me.heldyy.textmanager;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.ChatScreen;
 import net.minecraft.text.ClickEvent;
+import net.minecraft.text.HoverEvent;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import org.lwjgl.glfw.GLFW;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class TextManager {
 
     private static final Map<String, String> TEXTS = new LinkedHashMap<>();
     private static final Map<String, String> ORIGINAL_NAMES = new LinkedHashMap<>();
+    private static final DateTimeFormatter CHAT_LOG_TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter AUDIT_TIME = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+    private static final DateTimeFormatter[] AUDIT_DATES = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd"), DateTimeFormatter.ofPattern("dd.MM.yyyy")
+    };
 
     public static boolean addText(String name, String description) {
         if (name == null || name.isEmpty()) {
@@ -35,6 +47,7 @@ public class TextManager {
 
         TEXTS.put(nameKey, description != null ? description : "");
         ORIGINAL_NAMES.put(nameKey, name);
+        TextManagerSearch.index(nameKey, name, TEXTS.get(nameKey));
         TextManagerConfig.saveTexts();
         sendStatus("Добавлен текст: " + stripColorCodes(name), Formatting.GREEN);
         return true;
@@ -54,6 +67,8 @@ public class TextManager {
         boolean removed = TEXTS.remove(nameKey) != null;
         if (removed) {
             ORIGINAL_NAMES.remove(nameKey);
+            TextManagerHotkeys.onTextRemoved(nameKey);
+            TextManagerSearch.remove(nameKey);
             TextManagerConfig.saveTexts();
             sendStatus("Удален текст: " + stripColorCodes(name), Formatting.GREEN);
         } else {
@@ -86,6 +101,7 @@ public class TextManager {
 
         if (oldKey.equals(newKey)) {
             ORIGINAL_NAMES.put(oldKey, newName);
+            TextManagerSearch.index(oldKey, newName, TEXTS.get(oldKey));
             TextManagerConfig.saveTexts();
             sendStatus("Переименован: " + stripColorCodes(oldName) + " -> " + stripColorCodes(newName), Formatting.GREEN);
             return true;
@@ -109,6 +125,9 @@ public class TextManager {
         TEXTS.putAll(newTexts);
         ORIGINAL_NAMES.clear();
         ORIGINAL_NAMES.putAll(newOriginals);
+        TextManagerHotkeys.onTextRenamed(oldKey, newKey);
+        TextManagerSearch.remove(oldKey);
+        TextManagerSearch.index(newKey, newName, TEXTS.get(newKey));
 
         TextManagerConfig.saveTexts();
         sendStatus("Переименован: " + stripColorCodes(oldName) + " -> " + stripColorCodes(newName), Formatting.GREEN);
@@ -126,6 +145,8 @@ public class TextManager {
         }
 
         TEXTS.put(nameKey, newDescription != null ? newDescription : "");
+        TextManagerHotkeys.onTextUpdated(nameKey, TEXTS.get(nameKey));
+        TextManagerSearch.index(nameKey, ORIGINAL_NAMES.getOrDefault(nameKey, nameKey), TEXTS.get(nameKey));
         TextManagerConfig.saveTexts();
         sendStatus("Обновлено описание для: " + stripColorCodes(name), Formatting.GREEN);
         return true;
@@ -210,6 +231,8 @@ public class TextManager {
             TEXTS.put(k, e.getValue());
             ORIGINAL_NAMES.put(k, loadedOriginals.getOrDefault(k, k));
         }
+        TextManagerHotkeys.resolveAll(TEXTS);
+        TextManagerSearch.rebuild(TEXTS, ORIGINAL_NAMES);
     }
 
     public static boolean moveText(String name, int position) {
@@ -282,6 +305,199 @@ public class TextManager {
         return res;
     }
 
+    public static boolean bindHotkey(int slot, String name) {
+        if (slot < 1 || slot > TextManagerHotkeys.SLOT_COUNT) {
+            sendStatus("Неверный слот: " + slot + " (1-" + TextManagerHotkeys.SLOT_COUNT + ")", Formatting.RED);
+            return false;
+        }
+        String key = normalizeKey(name);
+        String description = TEXTS.get(key);
+        if (key.isEmpty() || description == null) {
+            sendStatus("Текст не найден: " + stripColorCodes(name), Formatting.RED);
+            return false;
+        }
+
+        TextManagerHotkeys.setSlot(slot, key, description);
+        TextManagerConfig.saveTexts();
+        sendStatus("Слот " + slot + " -> " + stripColorCodes(ORIGINAL_NAMES.getOrDefault(key, key)), Formatting.GREEN);
+        return true;
+    }
+
+    public static boolean unbindHotkey(int slot) {
+        if (slot < 1 || slot > TextManagerHotkeys.SLOT_COUNT) {
+            sendStatus("Неверный слот: " + slot + " (1-" + TextManagerHotkeys.SLOT_COUNT + ")", Formatting.RED);
+            return false;
+        }
+        if (!TextManagerHotkeys.clearSlot(slot)) {
+            sendStatus("Слот " + slot + " не назначен", Formatting.RED);
+            return false;
+        }
+        TextManagerConfig.saveTexts();
+        sendStatus("Слот " + slot + " очищен", Formatting.GREEN);
+        return true;
+    }
+
+    public static void showHotkeys() {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc == null || mc.player == null) return;
+
+        MutableText fullMessage = Text.literal("[TextManager] ").formatted(Formatting.GOLD)
+                .append(Text.literal("Горячие клавиши:").formatted(Formatting.YELLOW));
+
+        for (int slot = 1; slot <= TextManagerHotkeys.SLOT_COUNT; slot++) {
+            String key = TextManagerHotkeys.getSlotKey(slot);
+            fullMessage.append(Text.literal("\n" + slot + " [").formatted(Formatting.GRAY))
+                    .append(TextManagerHotkeys.getBoundKeyText(slot))
+                    .append(Text.literal("] ").formatted(Formatting.GRAY));
+            if (key == null) {
+                fullMessage.append(Text.literal("—").formatted(Formatting.DARK_GRAY));
+            } else {
+                String displayName = ORIGINAL_NAMES.getOrDefault(key, key).replace("&", "§");
+                fullMessage.append(Text.literal(displayName)
+                        .styled(style -> style.withClickEvent(
+                                new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/textsend " + key)
+                        )));
+            }
+        }
+
+        mc.player.sendMessage(fullMessage, false);
+    }
+
+    public static void startCheck(String player) {
+        if (player == null || player.trim().isEmpty()) return;
+        TextManagerSuggestions.setFrozenPlayer(player.trim());
+        sendStatus("Проверка: " + player.trim() + ". Подсказки ответов включены", Formatting.GREEN);
+    }
+
+    public static void endCheck() {
+        String player = TextManagerSuggestions.getFrozenPlayer();
+        TextManagerSuggestions.setFrozenPlayer(null);
+        if (player == null) {
+            sendStatus("Проверка не активна", Formatting.GRAY);
+        } else {
+            sendStatus("Проверка завершена: " + player, Formatting.GREEN);
+        }
+    }
+
+    public static void showCheck() {
+        String player = TextManagerSuggestions.getFrozenPlayer();
+        TextManagerRules rules = TextManagerConfig.getRules();
+        if (rules == null) {
+            sendStatus("Правила не загружены (config/textmanager_ai_config.json)", Formatting.RED);
+        } else if (player == null) {
+            sendStatus("Проверка не активна. /textcheck <ник>", Formatting.GRAY);
+        } else {
+            sendStatus("Проверка: " + player, Formatting.YELLOW);
+        }
+    }
+
+    public static void showChatLog(String player, int count) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc == null || mc.player == null || player == null || player.trim().isEmpty()) return;
+
+        player = player.trim();
+        int[] positions = TextManagerChatLog.lastFrom(player, count);
+        if (positions.length == 0) {
+            sendStatus("Нет сообщений от " + player + " в последних " + TextManagerChatLog.size() + " строках чата", Formatting.GRAY);
+            return;
+        }
+
+        MutableText fullMessage = Text.literal("[TextManager] ").formatted(Formatting.GOLD)
+                .append(Text.literal("Последние сообщения " + player + ":").formatted(Formatting.YELLOW));
+
+        TextManagerRules rules = TextManagerConfig.getRules();
+        for (int position : positions) {
+            String line = TextManagerChatLog.getStripped(position);
+            String time = TextManagerChatLog.formatTime(TextManagerChatLog.getTimestamp(position), CHAT_LOG_TIME);
+            int bodyStart = TextManagerChatParser.bodyStart(line);
+            String body = line.substring(bodyStart).trim();
+
+            fullMessage.append(Text.literal("\n"));
+            fullMessage.append(Text.literal("[" + time + "] ").formatted(Formatting.DARK_GRAY));
+            fullMessage.append(Text.literal(body).formatted(Formatting.WHITE));
+
+            String evidence = "[" + time + "] " + line;
+            fullMessage.append(Text.literal(" [копировать]").formatted(Formatting.GRAY)
+                    .styled(style -> style.withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, evidence))));
+
+            int rule = rules != null ? rules.match(line, bodyStart, line.length()) : -1;
+            String textKey = rule >= 0 ? rules.get(rule).textKey : null;
+            if (textKey != null && TEXTS.containsKey(textKey)) {
+                String displayName = ORIGINAL_NAMES.getOrDefault(textKey, textKey).replace("&", "§");
+                fullMessage.append(Text.literal(" [ответить]").formatted(Formatting.GREEN)
+                        .styled(style -> style
+                                .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/textsend " + textKey))
+                                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Text.literal(displayName)))));
+            } else if (!body.isEmpty()) {
+                fullMessage.append(Text.literal(" [найти]").formatted(Formatting.AQUA)
+                        .styled(style -> style.withClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, "/textfind " + body))));
+            }
+        }
+
+        mc.player.sendMessage(fullMessage, false);
+    }
+
+    public static void showAudit(String query) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc == null || mc.player == null || query == null || query.trim().isEmpty()) return;
+
+        String q = query.trim();
+        LocalDate day = null;
+        for (DateTimeFormatter format : AUDIT_DATES) {
+            try {
+                day = LocalDate.parse(q, format);
+                break;
+            } catch (DateTimeParseException ignored) {}
+        }
+        String templateKey = day == null ? normalizeKey(q) : null;
+        LocalDate queryDay = day;
+
+        new Thread(() -> {
+            int[] total = new int[1];
+            List<TextManagerAudit.Entry> entries = TextManagerAudit.query(mc, templateKey, queryDay, total);
+            mc.execute(() -> showAuditResults(mc, q, entries, total[0]));
+        }, "TextManager-AuditQuery").start();
+    }
+
+    private static void showAuditResults(MinecraftClient mc, String query, List<TextManagerAudit.Entry> entries, int total) {
+        if (mc.player == null) return;
+
+        if (entries.isEmpty()) {
+            sendStatus("В журнале ничего не найдено: " + query, Formatting.GRAY);
+            return;
+        }
+
+        MutableText fullMessage = Text.literal("[TextManager] ").formatted(Formatting.GOLD)
+                .append(Text.literal("Журнал отправок \"" + query + "\": " + total
+                        + (total > entries.size() ? ", последние " + entries.size() : "")).formatted(Formatting.YELLOW));
+
+        for (TextManagerAudit.Entry e : entries) {
+            String hover = "Сервер: " + e.server + "\n" + (e.command ? "Команда" : "Сообщение в чат");
+            fullMessage.append(Text.literal("\n"));
+            fullMessage.append(Text.literal("[" + TextManagerChatLog.formatTime(e.timestamp, AUDIT_TIME) + "] ").formatted(Formatting.DARK_GRAY));
+            fullMessage.append(Text.literal(e.key).formatted(Formatting.AQUA));
+            fullMessage.append(Text.literal(": " + stripColorCodes(e.text)).formatted(Formatting.GRAY)
+                    .styled(style -> style.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Text.literal(hover)))));
+        }
+
+        mc.player.sendMessage(fullMessage, false);
+    }
+
+    public static void dumpChatLog() {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc == null || mc.player == null) return;
+
+        try {
+            Path file = TextManagerChatLog.dump(mc.runDirectory.toPath().resolve("textmanager_logs"));
+            String path = file.toAbsolutePath().toString();
+            mc.player.sendMessage(Text.literal("[TextManager] ").formatted(Formatting.GOLD)
+                    .append(Text.literal("Чат сохранён: " + file.getFileName()).formatted(Formatting.GREEN)
+                            .styled(style -> style.withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_FILE, path)))), false);
+        } catch (Exception e) {
+            sendStatus("Не удалось сохранить чат: " + e.getMessage(), Formatting.RED);
+        }
+    }
+
     private static String normalizeKey(String key) {
         if (key == null) return "";
         return key.toLowerCase().replaceAll("§[0-9a-fk-or]", "").replaceAll("&[0-9a-fk-or]", "").trim();
@@ -320,12 +536,19 @@ public class TextManager {
             return;
         }
 
+        sendDescription(mc, normalizeKey(name), description);
+    }
+
+    static void sendDescription(MinecraftClient mc, String key, String description) {
+        if (mc == null || mc.player == null || description == null) return;
+
         String trimmed = description.trim();
         boolean isCommand = trimmed.startsWith("/");
 
         if (isCommand) {
             if (mc.keyboard == null) return;
 
+            TextManagerAudit.record(mc, key, trimmed, true);
             mc.setScreen(new ChatScreen(trimmed));
             scheduleKeyPress(mc);
 
@@ -337,6 +560,7 @@ public class TextManager {
 
         if (mc.player.networkHandler != null) {
             mc.player.networkHandler.sendChatMessage(description);
+            TextManagerAudit.record(mc, key, description, false);
         }
 
         if (TextManagerConfig.isCloseChatAfterSend()) {
@@ -440,6 +664,37 @@ public class TextManager {
         mc.player.sendMessage(fullMessage, false);
     }
 
+    public static void findTexts(String query) {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc == null || mc.player == null) return;
+
+        List<String> found = TextManagerSearch.search(query, 10);
+        if (found.isEmpty()) {
+            mc.player.sendMessage(Text.literal("Ничего не найдено: " + query).formatted(Formatting.GRAY), false);
+            return;
+        }
+
+        MutableText fullMessage = Text.literal("[TextManager] ").formatted(Formatting.GOLD)
+                .append(Text.literal("Найдено по запросу \"" + query + "\":").formatted(Formatting.YELLOW));
+
+        List<String> keys = new ArrayList<>(TEXTS.keySet());
+        for (String nameKey : found) {
+            String displayName = ORIGINAL_NAMES.getOrDefault(nameKey, nameKey).replace("&", "§");
+            String description = TEXTS.getOrDefault(nameKey, "").replace("&", "§");
+
+            fullMessage.append(Text.literal("\n"));
+
+            MutableText textLine = Text.literal((keys.indexOf(nameKey) + 1) + ". " + displayName)
+                    .styled(style -> style
+                            .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/textsend " + nameKey))
+                            .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Text.literal(description))));
+
+            fullMessage.append(textLine);
+        }
+
+        mc.player.sendMessage(fullMessage, false);
+    }
+
     public static void showHelp() {
         MinecraftClient mc = MinecraftClient.getInstance();
         if (mc == null || mc.player == null) return;
@@ -455,6 +710,8 @@ public class TextManager {
         help.append(Text.literal("/texts").formatted(Formatting.AQUA));
         help.append(Text.literal(" - показать все шаблоны").formatted(Formatting.GRAY));
         help.append(Text.literal("\n  Клик на название = отправить текст").formatted(Formatting.DARK_GRAY));
+        help.append(Text.literal("\n/textfind <слова>").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - найти шаблоны по словам из названия и текста").formatted(Formatting.GRAY));
 
         help.append(Text.literal("\n\n[ДОБАВЛЕНИЕ ШАБЛОНА]").formatted(Formatting.LIGHT_PURPLE));
         help.append(Text.literal("\n/textadd <название>/<описание>").formatted(Formatting.AQUA));
@@ -474,9 +731,35 @@ public class TextManager {
         help.append(Text.literal("\n/textmove <название> <позиция>").formatted(Formatting.AQUA));
         help.append(Text.literal("\n/textmoveindex <из> <в>").formatted(Formatting.AQUA));
 
+        help.append(Text.literal("\n\n[ГОРЯЧИЕ КЛАВИШИ]").formatted(Formatting.LIGHT_PURPLE));
+        help.append(Text.literal("\n/textbind <слот> <название|№>").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - привязать шаблон к слоту").formatted(Formatting.GRAY));
+        help.append(Text.literal("\n/textunbind <слот>").formatted(Formatting.AQUA));
+        help.append(Text.literal("\n/textbinds").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - показать слоты").formatted(Formatting.GRAY));
+        help.append(Text.literal("\n  Клавиши слотов настраиваются в Управление -> TextManager").formatted(Formatting.DARK_GRAY));
+
+        help.append(Text.literal("\n\n[ПРОВЕРКА]").formatted(Formatting.LIGHT_PURPLE));
+        help.append(Text.literal("\n/textcheck <ник>").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - подсказывать ответы на сообщения игрока").formatted(Formatting.GRAY));
+        help.append(Text.literal("\n/textcheckend").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - завершить проверку").formatted(Formatting.GRAY));
+        help.append(Text.literal("\n  Подсказка: Y - отправить, N - скрыть (настраивается в Управлении)").formatted(Formatting.DARK_GRAY));
+        help.append(Text.literal("\n/textlog <ник> [кол-во]").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - последние сообщения игрока с быстрыми ответами").formatted(Formatting.GRAY));
+        help.append(Text.literal("\n/textlogdump").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - сохранить недавний чат в файл").formatted(Formatting.GRAY));
+
+        help.append(Text.literal("\n\n[ЖУРНАЛ]").formatted(Formatting.LIGHT_PURPLE));
+        help.append(Text.literal("\n/textaudit <название|дата>").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - найти отправленные шаблоны").formatted(Formatting.GRAY));
+        help.append(Text.literal("\n  /textaudit читы, /textaudit 19.10.2026").formatted(Formatting.DARK_GRAY));
+
         help.append(Text.literal("\n\n[ОПЦИИ]").formatted(Formatting.LIGHT_PURPLE));
         help.append(Text.literal("\n/autoclosechat on|off").formatted(Formatting.AQUA));
         help.append(Text.literal(" - закрывать чат после отправки текста (команды закрываются всегда)").formatted(Formatting.GRAY));
+        help.append(Text.literal("\n/textshared on|off").formatted(Formatting.AQUA));
+        help.append(Text.literal(" - общие шаблоны для нескольких клиентов на одном ПК").formatted(Formatting.GRAY));
         help.append(Text.literal("\n/textsconfig").formatted(Formatting.AQUA));
         help.append(Text.literal(" - перезагрузить конфиг из файла").formatted(Formatting.GRAY));
 
@@ -514,6 +797,16 @@ public class TextManager {
         }
     }
 
+    public static void setSharedStore(boolean value) {
+        TextManagerConfig.setSharedStore(value);
+        if (value && !TextManagerSharedStore.isEnabled()) {
+            sendStatus("Не удалось открыть общее хранилище", Formatting.RED);
+            return;
+        }
+        sendStatus(value ? "Общее хранилище включено: шаблоны синхронизируются между клиентами" : "Общее хранилище выключено",
+                value ? Formatting.GREEN : Formatting.GRAY);
+    }
+
     public static void reloadConfig() {
         TextManagerConfig.reloadConfig();
         sendStatus("Конфиг обновлен!", Formatting.GREEN);
@@ -0,0 +1,272 @@
+package me.heldyy.textmanager;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ServerInfo;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Audit trail of every template sent, under textmanager_logs/audit/.
+ *
+ * record() only formats a line and appends it to an in-memory batch; a daemon thread writes the batch when it
+ * reaches BATCH_SIZE lines or every FLUSH_INTERVAL_MS. One line per send, tab separated:
+ * epoch millis, C (chat) or M (command), server address, template key, final text (tabs, newlines and
+ * backslashes escaped). audit.log is the current segment; once it passes SEGMENT_SIZE or a new day starts
+ * it is renamed to audit-yyyyMMdd-HHmmss.log and gzipped. Queries stream the segments line by line.
+ */
+public class TextManagerAudit {
+
+    private static final int BATCH_SIZE = 64;
+    private static final long FLUSH_INTERVAL_MS = 5000;
+    private static final long SEGMENT_SIZE = 1 << 20;
+    private static final int MAX_RESULTS = 20;
+
+    private static final String CURRENT = "audit.log";
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final Object BATCH_LOCK = new Object();
+    private static final Object FILE_LOCK = new Object();
+    private static List<String> batch = new ArrayList<>();
+
+    private static Path dir = null;
+    private static Thread writer = null;
+
+    public static class Entry {
+        public final long timestamp;
+        public final boolean command;
+        public final String server;
+        public final String key;
+        public final String text;
+
+        Entry(long timestamp, boolean command, String server, String key, String text) {
+            this.timestamp = timestamp;
+            this.command = command;
+            this.server = server;
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    public static void register() {
+        ClientLifecycleEvents.CLIENT_STOPPING.register(mc -> flush());
+    }
+
+    static void record(MinecraftClient mc, String key, String text, boolean command) {
+        if (mc == null || text == null) return;
+        if (writer == null) start(mc);
+
+        ServerInfo server = mc.getCurrentServerEntry();
+        String address = server != null && server.address != null ? server.address : mc.isInSingleplayer() ? "singleplayer" : "-";
+
+        String line = System.currentTimeMillis() + "\t" + (command ? 'M' : 'C') + "\t" + escape(address)
+                + "\t" + escape(key != null ? key : "-") + "\t" + escape(text);
+
+        synchronized (BATCH_LOCK) {
+            batch.add(line);
+            if (batch.size() >= BATCH_SIZE) BATCH_LOCK.notifyAll();
+        }
+    }
+
+    private static synchronized void directory(MinecraftClient mc) {
+        if (dir == null) dir = mc.runDirectory.toPath().resolve("textmanager_logs").resolve("audit");
+    }
+
+    private static synchronized void start(MinecraftClient mc) {
+        if (writer != null) return;
+        directory(mc);
+
+        writer = new Thread(() -> {
+            while (true) {
+                try {
+                    synchronized (BATCH_LOCK) {
+                        if (batch.size() < BATCH_SIZE) BATCH_LOCK.wait(FLUSH_INTERVAL_MS);
+                    }
+                    flush();
+                } catch (InterruptedException e) {
+                    flush();
+                    return;
+                } catch (Exception ignored) {}
+            }
+        }, "TextManager-Audit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static void flush() {
+        if (dir == null) return;
+
+        List<String> lines;
+        synchronized (BATCH_LOCK) {
+            if (batch.isEmpty()) return;
+            lines = batch;
+            batch = new ArrayList<>();
+        }
+
+        synchronized (FILE_LOCK) {
+            try {
+                Files.createDirectories(dir);
+                Path current = dir.resolve(CURRENT);
+                rotateIfNeeded(current);
+
+                try (Writer w = Files.newBufferedWriter(current, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (String line : lines) {
+                        w.write(line);
+                        w.write('\n');
+                    }
+                }
+            } catch (Exception ignored) {}
+        }
+    }
+
+    private static void rotateIfNeeded(Path current) throws Exception {
+        if (!Files.exists(current) || Files.size(current) == 0) return;
+
+        LocalDate modified = LocalDate.ofInstant(Files.getLastModifiedTime(current).toInstant(), ZoneId.systemDefault());
+        if (Files.size(current) < SEGMENT_SIZE && modified.equals(LocalDate.now())) return;
+
+        String name = SEGMENT_PREFIX + LocalDateTime.now().format(SEGMENT_TIME);
+        Path segment = dir.resolve(name + ".log");
+        for (int i = 1; Files.exists(segment) || Files.exists(dir.resolve(segment.getFileName() + ".gz")); i++) {
+            segment = dir.resolve(name + "_" + i + ".log");
+        }
+        Files.move(current, segment);
+
+        Path gz = dir.resolve(segment.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            in.transferTo(out);
+        } catch (Exception e) {
+            Files.deleteIfExists(gz);
+            return;
+        }
+        Files.delete(segment);
+    }
+
+    // Streams all segments oldest first and keeps only the last MAX_RESULTS matches. total[0] receives the match count.
+    public static List<Entry> query(MinecraftClient mc, String templateKey, LocalDate day, int[] total) {
+        ArrayDeque<Entry> found = new ArrayDeque<>();
+        total[0] = 0;
+        if (mc == null) return new ArrayList<>(found);
+
+        directory(mc);
+        flush();
+
+        long dayStart = day != null ? day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MIN_VALUE;
+        long dayEnd = day != null ? day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MAX_VALUE;
+
+        synchronized (FILE_LOCK) {
+            for (Path file : segments()) {
+                // A rotated segment only holds sends from before its rotation time.
+                if (day != null && rotatedBefore(file, dayStart)) continue;
+
+                try (InputStream raw = Files.newInputStream(file);
+                     InputStream in = file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(raw) : raw;
+                     BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = r.readLine()) != null) {
+                        int t1 = line.indexOf('\t');
+                        if (t1 <= 0) continue;
+
+                        long timestamp;
+                        try {
+                            timestamp = Long.parseLong(line.substring(0, t1));
+                        } catch (NumberFormatException e) {
+                            continue;
+                        }
+                        if (timestamp < dayStart || timestamp >= dayEnd) continue;
+
+                        String[] fields = line.substring(t1 + 1).split("\t", 4);
+                        if (fields.length < 4) continue;
+
+                        String key = unescape(fields[2]);
+                        if (templateKey != null && !key.contains(templateKey)) continue;
+
+                        total[0]++;
+                        found.addLast(new Entry(timestamp, "M".equals(fields[0]), unescape(fields[1]), key, unescape(fields[3])));
+                        if (found.size() > MAX_RESULTS) found.removeFirst();
+                    }
+                } catch (Exception ignored) {}
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    private static List<Path> segments() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*")) {
+            for (Path p : stream) files.add(p);
+        } catch (Exception ignored) {}
+        Collections.sort(files);
+
+        Path current = dir.resolve(CURRENT);
+        if (Files.exists(current)) files.add(current);
+        return files;
+    }
+
+    private static boolean rotatedBefore(Path file, long time) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX)) return false;
+        try {
+            int start = SEGMENT_PREFIX.length();
+            LocalDateTime rotated = LocalDateTime.parse(name.substring(start, start + 15), SEGMENT_TIME);
+            return rotated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() < time;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String escape(String s) {
+        if (s.indexOf('\t') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0 && s.indexOf('\\') < 0) return s;
+
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\\': sb.append("\\\\"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('\\') < 0) return s;
+
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '\\' || i + 1 == s.length()) {
+                sb.append(c);
+                continue;
+            }
+            char n = s.charAt(++i);
+            sb.append(n == 't' ? '\t' : n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+        }
+        return sb.toString();
+    }
+}
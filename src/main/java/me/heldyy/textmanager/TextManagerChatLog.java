@@ -0,0 +1,136 @@
+package me.heldyy.textmanager;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Recent incoming chat kept for /textlog and evidence dumps.
+ *
+ * A fixed-capacity ring of parallel arrays allocated once at class load: recording a line stores the line,
+ * the sender the caller already parsed and a stripped copy (the same string unless the line carries § codes),
+ * overwriting the oldest entry, so memory stays constant for the whole session.
+ */
+public class TextManagerChatLog {
+
+    public static final int CAPACITY = 2000;
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final DateTimeFormatter LINE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] SENDERS = new String[CAPACITY];
+    private static final long[] TIMESTAMPS = new long[CAPACITY];
+    private static final String[] LINES = new String[CAPACITY];
+    private static final String[] STRIPPED = new String[CAPACITY];
+
+    private static int next = 0;
+    private static int size = 0;
+
+    public static synchronized void record(String sender, String line) {
+        if (line == null || line.isEmpty()) return;
+
+        SENDERS[next] = sender;
+        TIMESTAMPS[next] = System.currentTimeMillis();
+        LINES[next] = line;
+        STRIPPED[next] = TextManagerChatParser.stripColorCodes(line);
+
+        next = (next + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    public static synchronized void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            SENDERS[i] = null;
+            LINES[i] = null;
+            STRIPPED[i] = null;
+        }
+        next = 0;
+        size = 0;
+    }
+
+    public static synchronized int size() {
+        return size;
+    }
+
+    // Positions (0 = oldest) of the last n lines from the sender, oldest first.
+    public static synchronized int[] lastFrom(String sender, int n) {
+        int[] found = new int[Math.max(0, Math.min(n, size))];
+        int count = 0;
+        for (int age = 0; age < size && count < found.length; age++) {
+            int slot = slot(size - 1 - age);
+            if (SENDERS[slot] != null && SENDERS[slot].equalsIgnoreCase(sender)) {
+                found[count++] = size - 1 - age;
+            }
+        }
+
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = found[count - 1 - i];
+        }
+        return result;
+    }
+
+    public static synchronized String getSender(int position) {
+        return SENDERS[slot(position)];
+    }
+
+    public static synchronized long getTimestamp(int position) {
+        return TIMESTAMPS[slot(position)];
+    }
+
+    public static synchronized String getLine(int position) {
+        return LINES[slot(position)];
+    }
+
+    public static synchronized String getStripped(int position) {
+        return STRIPPED[slot(position)];
+    }
+
+    public static Path dump(Path dir) throws Exception {
+        String[] senders = new String[CAPACITY];
+        long[] timestamps = new long[CAPACITY];
+        String[] stripped = new String[CAPACITY];
+        int count;
+        synchronized (TextManagerChatLog.class) {
+            count = size;
+            for (int i = 0; i < count; i++) {
+                int slot = slot(i);
+                senders[i] = SENDERS[slot];
+                timestamps[i] = TIMESTAMPS[slot];
+                stripped[i] = STRIPPED[slot];
+            }
+        }
+
+        Files.createDirectories(dir);
+        Path file = dir.resolve("chat_" + LocalDateTime.now().format(FILE_TIME) + ".txt");
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                w.write("[" + formatTime(timestamps[i], LINE_TIME) + "] ");
+                // Vanilla chat lines already start with "<name>"; only add the sender when the line lacks it.
+                if (senders[i] != null && !hasSender(stripped[i], senders[i])) w.write("<" + senders[i] + "> ");
+                w.write(stripped[i]);
+                w.newLine();
+            }
+        }
+        return file;
+    }
+
+    private static boolean hasSender(String line, String sender) {
+        int start = TextManagerChatParser.bodyStart(line);
+        int i = line.indexOf(sender);
+        return i >= 0 && (start == 0 || i < start);
+    }
+
+    public static String formatTime(long timestamp, DateTimeFormatter format) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()).format(format);
+    }
+
+    private static int slot(int position) {
+        return (next - size + position + CAPACITY) % CAPACITY;
+    }
+}
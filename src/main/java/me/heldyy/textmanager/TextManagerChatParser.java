@@ -0,0 +1,73 @@
+package me.heldyy.textmanager;
+
+public class TextManagerChatParser {
+
+    private static final String[] SEPARATORS = {" » ", "> ", " -> ", ": "};
+    private static final int MAX_PREFIX = 96;
+
+    public static int bodyStart(String line) {
+        if (line == null) return 0;
+
+        int best = -1;
+        int bestLength = 0;
+        int limit = Math.min(line.length(), MAX_PREFIX);
+        for (String sep : SEPARATORS) {
+            int idx = line.indexOf(sep);
+            if (idx < 0 || idx > limit) continue;
+            if (best < 0 || idx < best) {
+                best = idx;
+                bestLength = sep.length();
+            }
+        }
+        return best < 0 ? 0 : best + bestLength;
+    }
+
+    public static String body(String line) {
+        if (line == null) return "";
+        return line.substring(bodyStart(line)).trim();
+    }
+
+    public static String sender(String line) {
+        if (line == null) return null;
+
+        int start = bodyStart(line);
+        if (start == 0) return null;
+
+        // Scan the prefix in place (skipping § codes) and only allocate the name that wins.
+        int nameFrom = -1;
+        int nameTo = -1;
+        int i = 0;
+        while (i < start) {
+            while (i < start && !isNameChar(line.charAt(i))) {
+                i += line.charAt(i) == '§' ? 2 : 1;
+            }
+            int from = i;
+            while (i < start && isNameChar(line.charAt(i))) i++;
+            if (i - from >= 3 && i - from <= 16) {
+                nameFrom = from;
+                nameTo = i;
+            }
+        }
+        return nameFrom < 0 ? null : line.substring(nameFrom, nameTo);
+    }
+
+    public static String stripColorCodes(String line) {
+        if (line == null || line.indexOf('§') < 0) return line;
+
+        char[] chars = new char[line.length()];
+        int length = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '§' && i + 1 < line.length()) {
+                i++;
+                continue;
+            }
+            chars[length++] = c;
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -4,6 +4,7 @@ import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.Text;
@@ -16,8 +17,27 @@ public class TextManagerClient implements ClientModInitializer {
 
     @Override
     public void onInitializeClient() {
+        TextManagerHotkeys.register();
+        TextManagerSuggestions.register();
+        TextManagerSharedStore.register();
+        TextManagerAudit.register();
+        TextManagerConfig.register();
         TextManagerConfig.load();
 
+        ClientReceiveMessageEvents.GAME.register((message, overlay) -> {
+            if (overlay) return;
+            String line = message.getString();
+            String sender = TextManagerChatParser.sender(line);
+            TextManagerChatLog.record(sender, line);
+            TextManagerSuggestions.onChatMessage(line, sender);
+        });
+        ClientReceiveMessageEvents.CHAT.register((message, signedMessage, sender, params, receptionTimestamp) -> {
+            String line = message.getString();
+            String name = sender != null ? sender.getName() : null;
+            TextManagerChatLog.record(name, line);
+            TextManagerSuggestions.onChatMessage(line, name);
+        });
+
         ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
             dispatcher.register(literal("autoclosechat")
                     .then(literal("on").executes(ctx -> {
@@ -83,6 +103,12 @@ public class TextManagerClient implements ClientModInitializer {
                 return 1;
             }));
 
+            dispatcher.register(literal("textfind")
+                    .then(argument("query", StringArgumentType.greedyString()).executes(ctx -> {
+                        TextManager.findTexts(StringArgumentType.getString(ctx, "query"));
+                        return 1;
+                    })));
+
             dispatcher.register(literal("textshelp").executes(ctx -> {
                 TextManager.showHelp();
                 return 1;
@@ -207,6 +233,88 @@ public class TextManagerClient implements ClientModInitializer {
                             })))
             );
 
+            dispatcher.register(literal("textbind")
+                    .then(argument("slot", IntegerArgumentType.integer(1, TextManagerHotkeys.SLOT_COUNT))
+                            .then(argument("nameOrIndex", StringArgumentType.greedyString()).executes(ctx -> {
+                                int slot = IntegerArgumentType.getInteger(ctx, "slot");
+                                String nameOrIndex = StringArgumentType.getString(ctx, "nameOrIndex");
+                                String actual = nameOrIndex;
+                                try {
+                                    int idx = Integer.parseInt(nameOrIndex.trim());
+                                    String k = TextManager.getTextNameByIndex(idx);
+                                    if (k != null) actual = k;
+                                } catch (NumberFormatException ignored) {}
+
+                                boolean ok = TextManager.bindHotkey(slot, actual);
+                                return ok ? 1 : 0;
+                            })))
+            );
+
+            dispatcher.register(literal("textunbind")
+                    .then(argument("slot", IntegerArgumentType.integer(1, TextManagerHotkeys.SLOT_COUNT)).executes(ctx -> {
+                        int slot = IntegerArgumentType.getInteger(ctx, "slot");
+                        boolean ok = TextManager.unbindHotkey(slot);
+                        return ok ? 1 : 0;
+                    }))
+            );
+
+            dispatcher.register(literal("textbinds").executes(ctx -> {
+                TextManager.showHotkeys();
+                return 1;
+            }));
+
+            dispatcher.register(literal("textcheck")
+                    .executes(ctx -> {
+                        TextManager.showCheck();
+                        return 1;
+                    })
+                    .then(argument("player", StringArgumentType.word()).executes(ctx -> {
+                        String player = StringArgumentType.getString(ctx, "player");
+                        TextManager.startCheck(player);
+                        return 1;
+                    }))
+            );
+
+            dispatcher.register(literal("textcheckend").executes(ctx -> {
+                TextManager.endCheck();
+                return 1;
+            }));
+
+            dispatcher.register(literal("textlog")
+                    .then(argument("player", StringArgumentType.word())
+                            .executes(ctx -> {
+                                TextManager.showChatLog(StringArgumentType.getString(ctx, "player"), 10);
+                                return 1;
+                            })
+                            .then(argument("count", IntegerArgumentType.integer(1, TextManagerChatLog.CAPACITY)).executes(ctx -> {
+                                TextManager.showChatLog(StringArgumentType.getString(ctx, "player"), IntegerArgumentType.getInteger(ctx, "count"));
+                                return 1;
+                            })))
+            );
+
+            dispatcher.register(literal("textlogdump").executes(ctx -> {
+                TextManager.dumpChatLog();
+                return 1;
+            }));
+
+            dispatcher.register(literal("textaudit")
+                    .then(argument("query", StringArgumentType.greedyString()).executes(ctx -> {
+                        TextManager.showAudit(StringArgumentType.getString(ctx, "query"));
+                        return 1;
+                    }))
+            );
+
+            dispatcher.register(literal("textshared")
+                    .then(literal("on").executes(ctx -> {
+                        TextManager.setSharedStore(true);
+                        return 1;
+                    }))
+                    .then(literal("off").executes(ctx -> {
+                        TextManager.setSharedStore(false);
+                        return 1;
+                    }))
+            );
+
             dispatcher.register(literal("textsconfig").executes(ctx -> {
                 TextManager.reloadConfig();
                 return 1;
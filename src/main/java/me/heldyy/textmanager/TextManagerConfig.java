@@ -6,7 +6,10 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.util.Session;
 
 import java.io.Reader;
 import java.io.Writer;
@@ -21,15 +24,29 @@ public class TextManagerConfig {
 
     private static final Gson G = new GsonBuilder().setPrettyPrinting().create();
     private static final Path FILE = FabricLoader.getInstance().getConfigDir().resolve("textmanager_config.json");
+    private static final Path SNAPSHOT_FILE = FabricLoader.getInstance().getConfigDir().resolve("textmanager_config.bin");
+    private static final Path AI_FILE = FabricLoader.getInstance().getConfigDir().resolve("textmanager_ai_config.json");
 
     private static final Map<String, String> TEXTS = new LinkedHashMap<>();
     private static final Map<String, String> ORIGINAL_NAMES = new LinkedHashMap<>();
     private static boolean CLOSE_CHAT_AFTER_SEND = true;
+    private static boolean SHARED_STORE = false;
+    private static TextManagerRules RULES = null;
+
+    // With the shared store on, several clients write the same config file, so each account keeps its own
+    // hotkeys and close-chat setting here. Resolved on the first tick: the session may not exist during init.
+    private static Path CLIENT_FILE = null;
 
     static {
         load();
     }
 
+    public static void register() {
+        ClientTickEvents.END_CLIENT_TICK.register(mc -> {
+            if (CLIENT_FILE == null) resolveClientFile(mc);
+        });
+    }
+
     public static Map<String, String> getTexts() {
         return new LinkedHashMap<>(TEXTS);
     }
@@ -38,6 +55,10 @@ public class TextManagerConfig {
         return new LinkedHashMap<>(ORIGINAL_NAMES);
     }
 
+    public static TextManagerRules getRules() {
+        return RULES;
+    }
+
     public static boolean isCloseChatAfterSend() {
         return CLOSE_CHAT_AFTER_SEND;
     }
@@ -47,26 +68,127 @@ public class TextManagerConfig {
         saveTexts();
     }
 
+    public static boolean isSharedStore() {
+        return SHARED_STORE;
+    }
+
+    public static void setSharedStore(boolean value) {
+        SHARED_STORE = value;
+        if (value) {
+            TextManagerSharedStore.enable(true);
+            SHARED_STORE = TextManagerSharedStore.isEnabled();
+        } else {
+            TextManagerSharedStore.disable();
+        }
+        saveTexts();
+    }
+
     public static void saveTexts() {
+        TextManagerSharedStore.publish(TextManagerConfig::writeFiles);
+    }
+
+    private static void writeFiles() {
+        TextManagerSnapshot.Data data = currentData();
         try {
             Files.createDirectories(FILE.getParent());
             try (Writer w = Files.newBufferedWriter(FILE)) {
                 Map<String, Object> root = new LinkedHashMap<>();
 
-                List<String> order = new ArrayList<>(TextManager.getAllTexts().keySet());
+                List<String> order = new ArrayList<>(data.texts.keySet());
                 root.put("order", order);
 
-                root.put("textOriginalNames", TextManager.getAllOriginalNames());
-                root.put("texts", TextManager.getAllTexts());
+                root.put("textOriginalNames", data.originalNames);
+                root.put("texts", data.texts);
 
-                root.put("closeChatAfterSend", CLOSE_CHAT_AFTER_SEND);
+                root.put("closeChatAfterSend", data.closeChatAfterSend);
+                root.put("hotkeys", data.hotkeys);
+                root.put("sharedStore", data.sharedStore);
 
                 G.toJson(root, w);
             }
+        } catch (Exception ignored) {
+            TextManagerSnapshot.delete(SNAPSHOT_FILE);
+            return;
+        }
+        TextManagerSnapshot.write(SNAPSHOT_FILE, FILE, data);
+
+        if (SHARED_STORE && CLIENT_FILE != null) {
+            writeClientFile();
+        }
+    }
+
+    private static void resolveClientFile(MinecraftClient mc) {
+        Session session = mc != null ? mc.getSession() : null;
+        String username = session != null ? session.getUsername() : null;
+        if (username == null || username.isEmpty()) return;
+
+        CLIENT_FILE = FILE.resolveSibling("textmanager_client_" + username.replaceAll("[^A-Za-z0-9_]", "_") + ".json");
+        if (!SHARED_STORE) return;
+
+        if (Files.exists(CLIENT_FILE)) {
+            applyClientFile();
+        } else {
+            writeClientFile();
+        }
+    }
+
+    private static void applyClientFile() {
+        try (Reader r = Files.newBufferedReader(CLIENT_FILE)) {
+            JsonElement parsed = JsonParser.parseReader(r);
+            if (parsed == null || !parsed.isJsonObject()) return;
+            JsonObject root = parsed.getAsJsonObject();
+
+            if (root.has("closeChatAfterSend") && root.get("closeChatAfterSend").isJsonPrimitive()) {
+                CLOSE_CHAT_AFTER_SEND = root.get("closeChatAfterSend").getAsBoolean();
+            }
+
+            Map<String, String> hotkeys = new LinkedHashMap<>();
+            if (root.has("hotkeys") && root.get("hotkeys").isJsonObject()) {
+                for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("hotkeys").entrySet()) {
+                    JsonElement v = entry.getValue();
+                    if (v == null || !v.isJsonPrimitive()) continue;
+                    hotkeys.put(entry.getKey(), v.getAsString());
+                }
+            }
+            TextManagerHotkeys.loadSlots(hotkeys);
+            TextManagerHotkeys.resolveAll(TextManager.getAllTexts());
+        } catch (Exception ignored) {}
+    }
+
+    private static void writeClientFile() {
+        try (Writer w = Files.newBufferedWriter(CLIENT_FILE)) {
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("closeChatAfterSend", CLOSE_CHAT_AFTER_SEND);
+            root.put("hotkeys", TextManagerHotkeys.getSlots());
+            G.toJson(root, w);
         } catch (Exception ignored) {}
     }
 
+    private static TextManagerSnapshot.Data currentData() {
+        TextManagerSnapshot.Data data = new TextManagerSnapshot.Data();
+        data.texts.putAll(TextManager.getAllTexts());
+        data.originalNames.putAll(TextManager.getAllOriginalNames());
+        data.hotkeys.putAll(TextManagerHotkeys.getSlots());
+        data.closeChatAfterSend = CLOSE_CHAT_AFTER_SEND;
+        data.sharedStore = SHARED_STORE;
+        return data;
+    }
+
     public static void load() {
+        load(false);
+    }
+
+    // reload: the config was re-read on request (/textsconfig), so it may hold hand edits that must reach the
+    // shared store as local changes; at startup the shared file is authoritative instead.
+    private static void load(boolean reload) {
+        loadRules();
+
+        TextManagerSnapshot.Data snapshot = TextManagerSnapshot.read(SNAPSHOT_FILE, FILE);
+        if (snapshot != null) {
+            apply(snapshot, reload);
+            return;
+        }
+
         try {
             if (!Files.exists(FILE)) return;
 
@@ -84,14 +206,18 @@ public class TextManagerConfig {
                         ? root.getAsJsonObject("textOriginalNames")
                         : new JsonObject();
 
+                TextManagerSnapshot.Data data = new TextManagerSnapshot.Data();
+
                 if (root.has("closeChatAfterSend") && root.get("closeChatAfterSend").isJsonPrimitive()) {
                     try {
-                        CLOSE_CHAT_AFTER_SEND = root.get("closeChatAfterSend").getAsBoolean();
+                        data.closeChatAfterSend = root.get("closeChatAfterSend").getAsBoolean();
                     } catch (Exception ignored) {}
+                } else {
+                    data.closeChatAfterSend = CLOSE_CHAT_AFTER_SEND;
                 }
 
-                LinkedHashMap<String, String> loadedTexts = new LinkedHashMap<>();
-                LinkedHashMap<String, String> loadedOriginals = new LinkedHashMap<>();
+                Map<String, String> loadedTexts = data.texts;
+                Map<String, String> loadedOriginals = data.originalNames;
 
                 if (root.has("order") && root.get("order").isJsonArray()) {
                     JsonArray orderArr = root.getAsJsonArray("order");
@@ -122,19 +248,67 @@ public class TextManagerConfig {
                     }
                 }
 
-                TEXTS.clear();
-                TEXTS.putAll(loadedTexts);
-                ORIGINAL_NAMES.clear();
-                ORIGINAL_NAMES.putAll(loadedOriginals);
+                if (root.has("sharedStore") && root.get("sharedStore").isJsonPrimitive()) {
+                    try {
+                        data.sharedStore = root.get("sharedStore").getAsBoolean();
+                    } catch (Exception ignored) {}
+                }
+
+                if (root.has("hotkeys") && root.get("hotkeys").isJsonObject()) {
+                    for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("hotkeys").entrySet()) {
+                        JsonElement v = entry.getValue();
+                        if (v == null || !v.isJsonPrimitive()) continue;
+                        data.hotkeys.put(entry.getKey(), v.getAsString());
+                    }
+                }
 
-                try {
-                    TextManager.loadTexts(TEXTS, ORIGINAL_NAMES);
-                } catch (Throwable ignored) {}
+                apply(data, reload);
             }
-        } catch (Exception ignored) {}
+        } catch (Exception ignored) {
+            return;
+        }
+
+        TextManagerSnapshot.write(SNAPSHOT_FILE, FILE, currentData());
+    }
+
+    private static void loadRules() {
+        try {
+            RULES = Files.exists(AI_FILE) ? TextManagerRules.load(AI_FILE) : null;
+        } catch (Exception ignored) {
+            RULES = null;
+        }
+    }
+
+    private static void apply(TextManagerSnapshot.Data data, boolean reload) {
+        CLOSE_CHAT_AFTER_SEND = data.closeChatAfterSend;
+        TextManagerHotkeys.loadSlots(data.hotkeys);
+
+        TEXTS.clear();
+        TEXTS.putAll(data.texts);
+        ORIGINAL_NAMES.clear();
+        ORIGINAL_NAMES.putAll(data.originalNames);
+
+        try {
+            TextManager.loadTexts(TEXTS, ORIGINAL_NAMES);
+        } catch (Throwable ignored) {}
+
+        SHARED_STORE = data.sharedStore;
+        if (SHARED_STORE) {
+            // Per-account settings first: publishing writes the client file back.
+            if (CLIENT_FILE != null && Files.exists(CLIENT_FILE)) applyClientFile();
+            if (!reload) {
+                TextManagerSharedStore.enable(false);
+            } else if (TextManagerSharedStore.isEnabled()) {
+                TextManagerSharedStore.publish(TextManagerConfig::writeFiles);
+            } else {
+                TextManagerSharedStore.enable(true);
+            }
+        } else {
+            TextManagerSharedStore.disable();
+        }
     }
 
     public static void reloadConfig() {
-        load();
+        load(true);
     }
 }
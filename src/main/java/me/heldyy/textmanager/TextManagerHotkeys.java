@@ -0,0 +1,138 @@
+package me.heldyy.textmanager;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.option.KeyBinding;
+import net.minecraft.client.util.InputUtil;
+import net.minecraft.text.Text;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TextManagerHotkeys {
+
+    public static final int SLOT_COUNT = 9;
+    private static final String CATEGORY = "category.textmanager";
+
+    private static final KeyBinding[] KEYS = new KeyBinding[SLOT_COUNT];
+
+    // Slot -> text key and the description it resolved to when bound; kept in sync by TextManager mutations
+    // so a key press sends the stored reference without any lookup.
+    private static final String[] SLOT_KEYS = new String[SLOT_COUNT];
+    private static final String[] SLOT_DESCRIPTIONS = new String[SLOT_COUNT];
+
+    public static void register() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            KEYS[i] = KeyBindingHelper.registerKeyBinding(new KeyBinding(
+                    "key.textmanager.slot" + (i + 1), InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_UNKNOWN, CATEGORY));
+        }
+        ClientTickEvents.END_CLIENT_TICK.register(TextManagerHotkeys::onTick);
+    }
+
+    private static void onTick(MinecraftClient mc) {
+        if (mc == null || mc.player == null) return;
+
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            KeyBinding key = KEYS[i];
+            if (key == null) continue;
+
+            boolean pressed = false;
+            while (key.wasPressed()) {
+                pressed = true;
+            }
+
+            if (pressed && SLOT_DESCRIPTIONS[i] != null) {
+                TextManager.sendDescription(mc, SLOT_KEYS[i], SLOT_DESCRIPTIONS[i]);
+            }
+        }
+    }
+
+    static void setSlot(int slot, String key, String description) {
+        SLOT_KEYS[slot - 1] = key;
+        SLOT_DESCRIPTIONS[slot - 1] = description;
+    }
+
+    static boolean clearSlot(int slot) {
+        boolean wasBound = SLOT_KEYS[slot - 1] != null;
+        SLOT_KEYS[slot - 1] = null;
+        SLOT_DESCRIPTIONS[slot - 1] = null;
+        return wasBound;
+    }
+
+    public static String getSlotKey(int slot) {
+        if (slot < 1 || slot > SLOT_COUNT) return null;
+        return SLOT_KEYS[slot - 1];
+    }
+
+    static Text getBoundKeyText(int slot) {
+        KeyBinding key = KEYS[slot - 1];
+        if (key == null || key.isUnbound()) return Text.literal("не назначена");
+        return key.getBoundKeyLocalizedText();
+    }
+
+    static void onTextRemoved(String key) {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (key.equals(SLOT_KEYS[i])) {
+                SLOT_KEYS[i] = null;
+                SLOT_DESCRIPTIONS[i] = null;
+            }
+        }
+    }
+
+    static void onTextRenamed(String oldKey, String newKey) {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (oldKey.equals(SLOT_KEYS[i])) {
+                SLOT_KEYS[i] = newKey;
+            }
+        }
+    }
+
+    static void onTextUpdated(String key, String description) {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (key.equals(SLOT_KEYS[i])) {
+                SLOT_DESCRIPTIONS[i] = description;
+            }
+        }
+    }
+
+    static void resolveAll(Map<String, String> texts) {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            String key = SLOT_KEYS[i];
+            if (key == null) continue;
+
+            String description = texts.get(key);
+            if (description == null) {
+                SLOT_KEYS[i] = null;
+            }
+            SLOT_DESCRIPTIONS[i] = description;
+        }
+    }
+
+    public static Map<String, String> getSlots() {
+        Map<String, String> slots = new LinkedHashMap<>();
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (SLOT_KEYS[i] != null) {
+                slots.put(String.valueOf(i + 1), SLOT_KEYS[i]);
+            }
+        }
+        return slots;
+    }
+
+    public static void loadSlots(Map<String, String> slots) {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            SLOT_KEYS[i] = null;
+            SLOT_DESCRIPTIONS[i] = null;
+        }
+        if (slots == null) return;
+
+        for (Map.Entry<String, String> e : slots.entrySet()) {
+            try {
+                int slot = Integer.parseInt(e.getKey().trim());
+                if (slot < 1 || slot > SLOT_COUNT || e.getValue() == null) continue;
+                SLOT_KEYS[slot - 1] = e.getValue();
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package me.heldyy.textmanager;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Headless rule evaluation over recorded chat.
+ *
+ * java -cp textmanager.jar:gson.jar me.heldyy.textmanager.TextManagerLogAnalyzer [--plain] rules.json outDir logs...
+ *
+ * Inputs are files or directories (.log, .txt and .gz). Minecraft client logs contribute only their [CHAT] lines;
+ * with --plain every non-empty line is treated as a chat message.
+ */
+public class TextManagerLogAnalyzer {
+
+    private static final int CHUNK_SIZE = 4 << 20;
+    private static final int MAX_LINE = 64 << 10;
+    private static final int GZIP_BATCH = 16384;
+    private static final int SAMPLE_LIMIT = 200;
+    private static final byte[] CHAT_MARKER = "[CHAT] ".getBytes(StandardCharsets.UTF_8);
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE + MAX_LINE + 1]);
+    private static final ThreadLocal<TextManagerNormalizer.Buffer> NORMALIZED = ThreadLocal.withInitial(TextManagerNormalizer.Buffer::new);
+
+    private final TextManagerRules rules;
+    private final boolean plain;
+
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder chatLines = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+    private final LongAdder[] fired;
+    private final LongAdder[] matched;
+    private final LongAdder[] shadowed;
+    private final LongAdder[][] triggerHits;
+    private final Samples[] samples;
+    private final Samples unmatchedSamples = new Samples();
+
+    private static class Samples {
+        final Queue<String> lines = new ConcurrentLinkedQueue<>();
+        final AtomicInteger count = new AtomicInteger();
+
+        void offer(String line) {
+            if (count.get() >= SAMPLE_LIMIT) return;
+            if (count.incrementAndGet() <= SAMPLE_LIMIT) lines.add(line);
+        }
+    }
+
+    public TextManagerLogAnalyzer(TextManagerRules rules, boolean plain) {
+        this.rules = rules;
+        this.plain = plain;
+
+        int n = rules.size();
+        fired = new LongAdder[n];
+        matched = new LongAdder[n];
+        shadowed = new LongAdder[n];
+        triggerHits = new LongAdder[n][];
+        samples = new Samples[n];
+        for (int i = 0; i < n; i++) {
+            fired[i] = new LongAdder();
+            matched[i] = new LongAdder();
+            shadowed[i] = new LongAdder();
+            samples[i] = new Samples();
+            triggerHits[i] = new LongAdder[rules.get(i).triggers.length];
+            for (int t = 0; t < triggerHits[i].length; t++) {
+                triggerHits[i][t] = new LongAdder();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean plain = false;
+        List<String> positional = new ArrayList<>();
+        for (String a : args) {
+            if (a.equals("--plain")) plain = true;
+            else positional.add(a);
+        }
+
+        if (positional.size() < 3) {
+            System.err.println("Usage: TextManagerLogAnalyzer [--plain] <rules.json> <outDir> <log file or dir>...");
+            System.exit(2);
+            return;
+        }
+
+        TextManagerRules rules = TextManagerRules.load(Paths.get(positional.get(0)));
+        Path outDir = Paths.get(positional.get(1));
+
+        List<Path> inputs = new ArrayList<>();
+        for (String p : positional.subList(2, positional.size())) {
+            collectInputs(Paths.get(p), inputs);
+        }
+
+        TextManagerLogAnalyzer analyzer = new TextManagerLogAnalyzer(rules, plain);
+        ForkJoinPool pool = new ForkJoinPool();
+        long start = System.nanoTime();
+        try {
+            pool.invoke(analyzer.new FilesTask(inputs));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        analyzer.writeReport(outDir, inputs.size(), elapsed, pool.getParallelism());
+        System.out.println(analyzer.summaryLine(elapsed));
+    }
+
+    private static void collectInputs(Path path, List<Path> out) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> s = Files.walk(path)) {
+                s.filter(Files::isRegularFile)
+                        .filter(p -> {
+                            String n = p.getFileName().toString().toLowerCase(Locale.ROOT);
+                            return n.endsWith(".log") || n.endsWith(".txt") || n.endsWith(".gz");
+                        })
+                        .sorted()
+                        .forEach(out::add);
+            }
+        } else if (Files.isRegularFile(path)) {
+            out.add(path);
+        }
+    }
+
+    // One task per input file, so a logs/ directory of many small .log.gz files decodes on every core.
+    private class FilesTask extends RecursiveAction {
+        private final List<Path> files;
+
+        FilesTask(List<Path> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> tasks = new ArrayList<>(files.size());
+            for (Path file : files) {
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        try {
+                            processFile(file);
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    // Runs inside the pool: plain files split into chunk tasks, gzip batches are forked for idle workers to steal.
+    private void processFile(Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            processGzip(file);
+            return;
+        }
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            bytes.add(size);
+            new ChunkTask(ch, size, 0, size).invoke();
+        }
+    }
+
+    private void processGzip(Path file) throws IOException {
+        compressedBytes.add(Files.size(file));
+        Deque<ForkJoinTask<?>> pending = new ArrayDeque<>();
+        int maxPending = ForkJoinTask.getPool().getParallelism() * 4;
+
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new CountingInputStream(new GZIPInputStream(Files.newInputStream(file), 1 << 16)), StandardCharsets.UTF_8), 1 << 16)) {
+            List<String> batch = new ArrayList<>(GZIP_BATCH);
+            String line;
+            while ((line = r.readLine()) != null) {
+                batch.add(line);
+                if (batch.size() == GZIP_BATCH) {
+                    pending.add(ForkJoinTask.adapt(batchTask(batch)).fork());
+                    batch = new ArrayList<>(GZIP_BATCH);
+                    if (pending.size() > maxPending) pending.poll().join();
+                }
+            }
+            if (!batch.isEmpty()) batchTask(batch).run();
+        }
+
+        for (ForkJoinTask<?> t : pending) {
+            t.join();
+        }
+    }
+
+    // Counts decoded bytes so throughput is reported over the same unit for plain and gzip input.
+    private class CountingInputStream extends FilterInputStream {
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) bytes.increment();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) bytes.add(n);
+            return n;
+        }
+    }
+
+    private Runnable batchTask(List<String> batch) {
+        return () -> {
+            for (String line : batch) {
+                lines.increment();
+                String chat = extractChat(line);
+                if (chat != null) evaluate(chat);
+            }
+        };
+    }
+
+    private class ChunkTask extends RecursiveAction {
+        private final FileChannel ch;
+        private final long fileSize;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel ch, long fileSize, long start, long end) {
+            this.ch = ch;
+            this.fileSize = fileSize;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > CHUNK_SIZE) {
+                long mid = start + (end - start) / 2;
+                invokeAll(new ChunkTask(ch, fileSize, start, mid), new ChunkTask(ch, fileSize, mid, end));
+                return;
+            }
+            try {
+                processChunk(ch, fileSize, start, end);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    // A line belongs to the chunk that contains its first byte; the read extends past the chunk end so the
+    // last line can be completed.
+    private void processChunk(FileChannel ch, long fileSize, long start, long end) throws IOException {
+        byte[] buf = BUFFER.get();
+        long readFrom = start > 0 ? start - 1 : 0;
+        int length = (int) Math.min(fileSize - readFrom, (end - readFrom) + MAX_LINE);
+
+        ByteBuffer bb = ByteBuffer.wrap(buf, 0, length);
+        long pos = readFrom;
+        while (bb.hasRemaining()) {
+            int n = ch.read(bb, pos);
+            if (n < 0) break;
+            pos += n;
+        }
+        int filled = bb.position();
+        int limit = (int) (end - readFrom);
+
+        int i = 0;
+        if (start > 0) {
+            while (i < filled && buf[i] != '\n') i++;
+            i++;
+        }
+
+        while (i < limit && i < filled) {
+            int lineEnd = i;
+            while (lineEnd < filled && buf[lineEnd] != '\n') lineEnd++;
+
+            int contentEnd = lineEnd;
+            if (contentEnd > i && buf[contentEnd - 1] == '\r') contentEnd--;
+            processLine(buf, i, contentEnd);
+
+            i = lineEnd + 1;
+        }
+    }
+
+    private void processLine(byte[] buf, int from, int to) {
+        lines.increment();
+        int bodyFrom = from;
+        if (!plain) {
+            int marker = indexOf(buf, from, to, CHAT_MARKER);
+            if (marker < 0) return;
+            bodyFrom = marker + CHAT_MARKER.length;
+        }
+        if (bodyFrom >= to) return;
+        evaluate(new String(buf, bodyFrom, to - bodyFrom, StandardCharsets.UTF_8));
+    }
+
+    private String extractChat(String line) {
+        if (plain) return line.isEmpty() ? null : line;
+        int marker = line.indexOf("[CHAT] ");
+        if (marker < 0) return null;
+        return line.substring(marker + CHAT_MARKER.length);
+    }
+
+    private void evaluate(String chat) {
+        TextManagerNormalizer.Buffer normalized = TextManagerNormalizer.normalize(
+                chat, TextManagerChatParser.bodyStart(chat), chat.length(), NORMALIZED.get());
+        if (normalized.length() == 0) return;
+        chatLines.increment();
+
+        int winner = -1;
+        for (int r = 0; r < rules.size(); r++) {
+            int trigger = rules.matchTrigger(r, normalized);
+            if (trigger < 0) continue;
+
+            matched[r].increment();
+            triggerHits[r][trigger].increment();
+            if (winner < 0) {
+                winner = r;
+                fired[r].increment();
+                samples[r].offer(chat);
+            } else {
+                shadowed[r].increment();
+            }
+        }
+
+        if (winner < 0) {
+            unmatched.increment();
+            unmatchedSamples.offer(chat);
+        }
+    }
+
+    private static int indexOf(byte[] buf, int from, int to, byte[] needle) {
+        outer:
+        for (int i = from; i <= to - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (buf[i + j] != needle[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private String summaryLine(long elapsedNanos) {
+        double seconds = Math.max(elapsedNanos / 1e9, 1e-9);
+        return String.format(Locale.ROOT, "%d lines (%d chat) in %.2f s: %.0f lines/s, %.1f MB/s",
+                lines.sum(), chatLines.sum(), seconds, lines.sum() / seconds, bytes.sum() / seconds / (1 << 20));
+    }
+
+    public void writeReport(Path outDir, int files, long elapsedNanos, int threads) throws IOException {
+        Files.createDirectories(outDir.resolve("rules"));
+
+        long chat = chatLines.sum();
+        try (Writer w = Files.newBufferedWriter(outDir.resolve("summary.txt"), StandardCharsets.UTF_8)) {
+            w.write("files: " + files + "\n");
+            w.write("bytes: " + bytes.sum() + " decoded, " + compressedBytes.sum() + " gzip input\n");
+            w.write("threads: " + threads + "\n");
+            w.write(summaryLine(elapsedNanos) + "\n\n");
+
+            w.write(String.format(Locale.ROOT, "%-24s %10s %8s %10s %10s  %s%n", "rule", "fired", "%chat", "matched", "shadowed", "textKey"));
+            for (int r = 0; r < rules.size(); r++) {
+                TextManagerRules.Rule rule = rules.get(r);
+                w.write(String.format(Locale.ROOT, "%-24s %10d %7.3f%% %10d %10d  %s%n",
+                        rule.id, fired[r].sum(), percent(fired[r].sum(), chat), matched[r].sum(), shadowed[r].sum(), rule.textKey));
+            }
+
+            long none = unmatched.sum();
+            w.write(String.format(Locale.ROOT, "%n%-24s %10d %7.3f%%  %s%n", "no match", none, percent(none, chat),
+                    rules.isFallbackEnabled() ? "fallback -> " + rules.getFallbackTextKey() : "fallback disabled"));
+        }
+
+        for (int r = 0; r < rules.size(); r++) {
+            TextManagerRules.Rule rule = rules.get(r);
+            try (Writer w = Files.newBufferedWriter(outDir.resolve("rules").resolve(safeFileName(rule.id) + ".txt"), StandardCharsets.UTF_8)) {
+                w.write("rule: " + rule.id + "\n");
+                w.write("textKey: " + rule.textKey + "\n");
+                w.write("fired: " + fired[r].sum() + ", matched: " + matched[r].sum() + ", shadowed by earlier rules: " + shadowed[r].sum() + "\n\n");
+
+                w.write("triggers:\n");
+                for (int t = 0; t < rule.triggers.length; t++) {
+                    w.write(String.format(Locale.ROOT, "%10d  %s%n", triggerHits[r][t].sum(), rule.triggers[t]));
+                }
+
+                w.write("\nsamples:\n");
+                for (String line : samples[r].lines) {
+                    w.write(line + "\n");
+                }
+            }
+        }
+
+        try (Writer w = Files.newBufferedWriter(outDir.resolve("unmatched.txt"), StandardCharsets.UTF_8)) {
+            for (String line : unmatchedSamples.lines) {
+                w.write(line + "\n");
+            }
+        }
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    private static String safeFileName(String s) {
+        return s.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+}
@@ -0,0 +1,161 @@
+package me.heldyy.textmanager;
+
+/**
+ * Folds chat text into the form rule triggers are compared in: color codes removed, lowercase,
+ * Latin look-alikes mapped to Cyrillic, ё -> е, repeated characters collapsed, single letters spelled out
+ * with punctuation joined back and any other run of separators turned into a single space.
+ *
+ * Everything is driven by a lookup table built once, and the result is written into a caller-owned
+ * {@link Buffer}, so normalizing a message does not allocate.
+ */
+public class TextManagerNormalizer {
+
+    private static final char DROP = 0;
+    private static final char SEP = ' ';
+
+    private static final char[] FOLD = new char[Character.MAX_VALUE + 1];
+    private static final boolean[] SPACE = new boolean[Character.MAX_VALUE + 1];
+    private static final boolean[] COLOR_CODE = new boolean[128];
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            int type = Character.getType(ch);
+            if (type == Character.FORMAT || type == Character.CONTROL && !Character.isWhitespace(ch)
+                    || type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK) {
+                FOLD[c] = DROP;
+            } else if (Character.isLetterOrDigit(ch)) {
+                FOLD[c] = Character.toLowerCase(ch);
+            } else {
+                FOLD[c] = SEP;
+            }
+            SPACE[c] = Character.isWhitespace(ch) || Character.isSpaceChar(ch);
+        }
+
+        // Case is folded first, so both cases of a look-alike map to the same Cyrillic letter ("B" and "b" -> "в").
+        String latin = "abcehkmoptxy";
+        String cyrillic = "авсенкмортху";
+        for (int i = 0; i < latin.length(); i++) {
+            FOLD[latin.charAt(i)] = cyrillic.charAt(i);
+            FOLD[Character.toUpperCase(latin.charAt(i))] = cyrillic.charAt(i);
+        }
+
+        FOLD['ё'] = 'е';
+        FOLD['Ё'] = 'е';
+
+        for (char c : "0123456789abcdefklmnorABCDEFKLMNOR".toCharArray()) {
+            COLOR_CODE[c] = true;
+        }
+    }
+
+    public static class Buffer {
+        char[] chars;
+        int length;
+
+        public Buffer() {
+            this(256);
+        }
+
+        public Buffer(int capacity) {
+            chars = new char[Math.max(16, capacity)];
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public char charAt(int i) {
+            return chars[i];
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+
+    public static Buffer normalize(CharSequence text, Buffer out) {
+        return normalize(text, 0, text != null ? text.length() : 0, out);
+    }
+
+    public static Buffer normalize(CharSequence text, int from, int to, Buffer out) {
+        out.length = 0;
+        if (text == null) return out;
+
+        if (out.chars.length < to - from) {
+            out.chars = new char[Math.max(to - from, out.chars.length * 2)];
+        }
+
+        char[] chars = out.chars;
+        int length = 0;
+        char last = SEP;
+        int run = 0;
+        boolean pendingSep = false;
+        boolean pendingJoin = false;
+
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+
+            if ((c == '&' || c == '§') && i + 1 < to) {
+                char code = text.charAt(i + 1);
+                if (code < 128 && COLOR_CODE[code]) {
+                    i++;
+                    continue;
+                }
+            }
+
+            char f = FOLD[c];
+            if (f == DROP) continue;
+
+            if (f == SEP) {
+                if (!pendingSep) {
+                    pendingSep = true;
+                    pendingJoin = run == 1;
+                }
+                if (SPACE[c]) pendingJoin = false;
+                run = 0;
+                continue;
+            }
+
+            if (pendingSep) {
+                // Punctuation between single letters is spelling-out ("ч.и.т.е.р"); a one-letter word followed by
+                // a longer one ("я,читер") is still two words.
+                if ((!pendingJoin || !singleLetterRun(text, i + 1, to)) && length > 0 && last != SEP) {
+                    chars[length++] = SEP;
+                    last = SEP;
+                }
+                pendingSep = false;
+            }
+            run++;
+
+            if (f == last && (f < '0' || f > '9')) continue;
+            chars[length++] = f;
+            last = f;
+        }
+
+        out.length = length;
+        return out;
+    }
+
+    private static boolean singleLetterRun(CharSequence text, int i, int to) {
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if ((c == '&' || c == '§') && i + 1 < to) {
+                char code = text.charAt(i + 1);
+                if (code < 128 && COLOR_CODE[code]) {
+                    i++;
+                    continue;
+                }
+            }
+
+            char f = FOLD[c];
+            if (f == DROP) continue;
+            return f == SEP;
+        }
+        return true;
+    }
+
+    public static String normalize(String text) {
+        return normalize(text, new Buffer(text != null ? text.length() : 16)).toString();
+    }
+}
@@ -0,0 +1,136 @@
+package me.heldyy.textmanager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Detects players repeating (nearly) the same question.
+ *
+ * Each message is normalized and reduced to a 64-bit SimHash over character 3-grams; a sender keeps only
+ * the last {@code window} fingerprints, and a message counts as a repeat of an earlier one when their
+ * Hamming distance is at most {@code maxDistance}. Messages shorter than {@code minWords} words ("да", "ок")
+ * are neither checked nor remembered: short answers repeat legitimately.
+ */
+public class TextManagerRepeatDetector {
+
+    private static final int MAX_SENDERS = 64;
+
+    private final int window;
+    private final int maxDistance;
+    private final int minWords;
+    private final int[] votes = new int[64];
+    private final TextManagerNormalizer.Buffer buffer = new TextManagerNormalizer.Buffer();
+
+    private final Map<String, long[]> history = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+            return size() > MAX_SENDERS;
+        }
+    };
+
+    public TextManagerRepeatDetector(int window, int maxDistance, int minWords) {
+        this.window = Math.max(1, window);
+        this.maxDistance = Math.max(0, Math.min(63, maxDistance));
+        this.minWords = Math.max(1, minWords);
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public int getMinWords() {
+        return minWords;
+    }
+
+    // Returns how many of the sender's recent messages are near-duplicates of this one, then records it.
+    public int record(String sender, CharSequence message, int from, int to) {
+        TextManagerNormalizer.normalize(message, from, to, buffer);
+        if (words(buffer) < minWords) return 0;
+
+        long fingerprint = fingerprint(buffer);
+        String key = sender != null ? sender.toLowerCase() : "";
+
+        // Slot 0 holds the write position and fill count; slots 1..window hold fingerprints.
+        long[] ring = history.get(key);
+        if (ring == null) {
+            ring = new long[window + 1];
+            history.put(key, ring);
+        }
+
+        int next = (int) (ring[0] & 0xFFFFFFFFL);
+        int filled = (int) (ring[0] >>> 32);
+
+        int repeats = 0;
+        for (int i = 1; i <= filled; i++) {
+            if (Long.bitCount(ring[i] ^ fingerprint) <= maxDistance) repeats++;
+        }
+
+        ring[next + 1] = fingerprint;
+        next = (next + 1) % window;
+        if (filled < window) filled++;
+        ring[0] = ((long) filled << 32) | next;
+
+        return repeats;
+    }
+
+    public void clear() {
+        history.clear();
+    }
+
+    public void clear(String sender) {
+        if (sender != null) history.remove(sender.toLowerCase());
+    }
+
+    private static int words(TextManagerNormalizer.Buffer text) {
+        int words = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != ' ' && (i == 0 || text.charAt(i - 1) == ' ')) words++;
+        }
+        return words;
+    }
+
+    long fingerprint(TextManagerNormalizer.Buffer text) {
+        int[] v = votes;
+        for (int i = 0; i < 64; i++) v[i] = 0;
+
+        // Features: character 3-grams for spelling variations plus whole words, which count double.
+        int length = text.length();
+        for (int i = 0; i + 2 < length; i++) {
+            long gram = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            vote(v, mix(gram), 1);
+        }
+
+        long word = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (c == ' ') {
+                vote(v, mix(word), 2);
+                word = 0x9E3779B97F4A7C15L;
+            } else {
+                word = (word ^ c) * 0x100000001B3L;
+            }
+        }
+
+        long fingerprint = 0;
+        for (int i = 0; i < 64; i++) {
+            if (v[i] > 0) fingerprint |= 1L << i;
+        }
+        return fingerprint;
+    }
+
+    private static void vote(int[] v, long hash, int weight) {
+        for (int i = 0; i < 64; i++) {
+            v[i] += ((hash >>> i) & 1L) != 0 ? weight : -weight;
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,250 @@
+package me.heldyy.textmanager;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TextManagerRules {
+
+    public static class Rule {
+        public final String id;
+        public final String textKey;
+        public final String[] triggers;
+        private final char[][] compiled;
+
+        Rule(String id, String textKey, Map<String, String> triggers) {
+            this.id = id;
+            this.textKey = textKey;
+            this.triggers = new String[triggers.size()];
+            this.compiled = new char[triggers.size()][];
+            int i = 0;
+            for (Map.Entry<String, String> e : triggers.entrySet()) {
+                this.triggers[i] = e.getValue();
+                this.compiled[i] = e.getKey().toCharArray();
+                i++;
+            }
+        }
+    }
+
+    private static final ThreadLocal<TextManagerNormalizer.Buffer> BUFFER = ThreadLocal.withInitial(TextManagerNormalizer.Buffer::new);
+
+    private final Rule[] rules;
+    private final Map<String, String> texts;
+    private final Map<String, String> originalNames;
+    private final boolean enabled;
+    private final boolean suggestMode;
+    private final boolean requireFrozenPlayer;
+    private final long cooldownMs;
+    private final boolean fallbackEnabled;
+    private final String fallbackTextKey;
+    private final int repeatLimit;
+    private final int repeatWindow;
+    private final int repeatMaxDistance;
+    private final int repeatMinWords;
+    private final String repeatedQuestionAnswer;
+
+    private TextManagerRules(Rule[] rules, Map<String, String> texts, Map<String, String> originalNames, JsonObject root) {
+        this.rules = rules;
+        this.texts = texts;
+        this.originalNames = originalNames;
+        this.enabled = getBoolean(root, "enabled", true);
+        this.suggestMode = getBoolean(root, "suggestMode", true);
+        this.requireFrozenPlayer = getBoolean(root, "requireFrozenPlayer", true);
+        this.cooldownMs = getLong(root, "cooldownMs", 1500);
+        this.fallbackEnabled = getBoolean(root, "fallbackEnabled", false);
+        this.fallbackTextKey = getString(root, "fallbackTextKey", null);
+        this.repeatLimit = (int) getLong(root, "repeatLimit", 0);
+        this.repeatWindow = (int) getLong(root, "repeatWindow", 8);
+        this.repeatMaxDistance = (int) getLong(root, "repeatMaxDistance", 13);
+        this.repeatMinWords = (int) getLong(root, "repeatMinWords", 3);
+        this.repeatedQuestionAnswer = getString(root, "repeatedQuestionAnswer", null);
+    }
+
+    public static TextManagerRules load(Path file) throws Exception {
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonElement parsed = JsonParser.parseReader(r);
+            if (parsed == null || !parsed.isJsonObject()) {
+                throw new IllegalArgumentException("Не JSON-объект: " + file);
+            }
+            return parse(parsed.getAsJsonObject());
+        }
+    }
+
+    public static TextManagerRules parse(JsonObject root) {
+        List<Rule> rules = new ArrayList<>();
+
+        if (root.has("rules") && root.get("rules").isJsonArray()) {
+            for (JsonElement e : root.getAsJsonArray("rules")) {
+                if (e == null || !e.isJsonObject()) continue;
+                JsonObject o = e.getAsJsonObject();
+
+                String id = getString(o, "id", "rule" + (rules.size() + 1));
+                String textKey = getString(o, "textKey", "");
+
+                Map<String, String> triggers = new LinkedHashMap<>();
+                if (o.has("triggers") && o.get("triggers").isJsonArray()) {
+                    JsonArray arr = o.getAsJsonArray("triggers");
+                    for (JsonElement t : arr) {
+                        if (t == null || !t.isJsonPrimitive()) continue;
+                        String trigger = t.getAsString();
+                        String normalized = TextManagerNormalizer.normalize(trigger);
+                        if (!normalized.isEmpty()) triggers.putIfAbsent(normalized, trigger);
+                    }
+                }
+                if (triggers.isEmpty()) continue;
+
+                rules.add(new Rule(id, textKey, triggers));
+            }
+        }
+
+        return new TextManagerRules(rules.toArray(new Rule[0]), getStringMap(root, "texts"), getStringMap(root, "textOriginalNames"), root);
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    public Rule get(int index) {
+        return rules[index];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSuggestMode() {
+        return suggestMode;
+    }
+
+    public boolean isRequireFrozenPlayer() {
+        return requireFrozenPlayer;
+    }
+
+    public long getCooldownMs() {
+        return cooldownMs;
+    }
+
+    public String getText(String key) {
+        return texts.get(key);
+    }
+
+    public String getTextName(String key) {
+        return originalNames.getOrDefault(key, key);
+    }
+
+    public boolean isFallbackEnabled() {
+        return fallbackEnabled && fallbackTextKey != null && !fallbackTextKey.isEmpty();
+    }
+
+    public String getFallbackTextKey() {
+        return fallbackTextKey;
+    }
+
+    public boolean isRepeatCheckEnabled() {
+        return repeatLimit > 0 && repeatedQuestionAnswer != null && !repeatedQuestionAnswer.isEmpty();
+    }
+
+    public int getRepeatLimit() {
+        return repeatLimit;
+    }
+
+    public int getRepeatWindow() {
+        return repeatWindow;
+    }
+
+    public int getRepeatMaxDistance() {
+        return repeatMaxDistance;
+    }
+
+    public int getRepeatMinWords() {
+        return repeatMinWords;
+    }
+
+    public String getRepeatedQuestionAnswer() {
+        return repeatedQuestionAnswer;
+    }
+
+    public int match(CharSequence message) {
+        return match(message, 0, message != null ? message.length() : 0);
+    }
+
+    public int match(CharSequence message, int from, int to) {
+        TextManagerNormalizer.Buffer normalized = TextManagerNormalizer.normalize(message, from, to, BUFFER.get());
+        for (int i = 0; i < rules.length; i++) {
+            if (matchTrigger(i, normalized) >= 0) return i;
+        }
+        return -1;
+    }
+
+    public int matchTrigger(int rule, TextManagerNormalizer.Buffer normalized) {
+        char[][] triggers = rules[rule].compiled;
+        for (int t = 0; t < triggers.length; t++) {
+            if (containsWord(normalized.chars, normalized.length, triggers[t])) return t;
+        }
+        return -1;
+    }
+
+    // Normalized text only contains folded letters, digits and single spaces, so a word boundary is a space.
+    private static boolean containsWord(char[] text, int length, char[] word) {
+        int last = length - word.length;
+        char first = word[0];
+        outer:
+        for (int i = 0; i <= last; i++) {
+            if (text[i] != first) continue;
+            if (i > 0 && text[i - 1] != ' ') continue;
+            int end = i + word.length;
+            if (end < length && text[end] != ' ') continue;
+
+            for (int j = 1; j < word.length; j++) {
+                if (text[i + j] != word[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static String getString(JsonObject o, String key, String def) {
+        if (!o.has(key) || !o.get(key).isJsonPrimitive()) return def;
+        return o.get(key).getAsString();
+    }
+
+    private static Map<String, String> getStringMap(JsonObject o, String key) {
+        Map<String, String> map = new LinkedHashMap<>();
+        if (!o.has(key) || !o.get(key).isJsonObject()) return map;
+
+        for (Map.Entry<String, JsonElement> e : o.getAsJsonObject(key).entrySet()) {
+            JsonElement v = e.getValue();
+            if (v == null || !v.isJsonPrimitive()) continue;
+            map.put(e.getKey(), v.getAsString());
+        }
+        return map;
+    }
+
+    private static long getLong(JsonObject o, String key, long def) {
+        if (!o.has(key) || !o.get(key).isJsonPrimitive()) return def;
+        try {
+            return o.get(key).getAsLong();
+        } catch (Exception e) {
+            return def;
+        }
+    }
+
+    private static boolean getBoolean(JsonObject o, String key, boolean def) {
+        if (!o.has(key) || !o.get(key).isJsonPrimitive()) return def;
+        try {
+            return o.get(key).getAsBoolean();
+        } catch (Exception e) {
+            return def;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package me.heldyy.textmanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over template names and descriptions for /textfind.
+ *
+ * Tokens come from TextManagerNormalizer, so color codes, case, ё and Latin/Cyrillic look-alikes fold the
+ * same way for templates and queries. Name tokens weigh more than description tokens; a query word also
+ * matches longer words it is a prefix of, at a lower weight. Templates get small int ids so postings are
+ * plain arrays and a query only touches the templates that contain one of its words.
+ */
+public class TextManagerSearch {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    private static final NavigableMap<String, Postings> POSTINGS = new TreeMap<>();
+    private static final Map<String, Integer> IDS = new HashMap<>();
+    private static final TextManagerNormalizer.Buffer BUFFER = new TextManagerNormalizer.Buffer();
+
+    private static String[] keys = new String[64];
+    private static String[][] documentTerms = new String[64][];
+    private static int[] freeIds = new int[16];
+    private static int freeCount = 0;
+    private static int nextId = 0;
+
+    // Per-query scratch, indexed by template id; only the touched entries are reset afterwards.
+    private static double[] scores = new double[64];
+    private static int[] matched = new int[64];
+    private static int[] touched = new int[64];
+    private static int touchedCount = 0;
+
+    private static final class Postings {
+        int[] ids = new int[4];
+        int[] weights = new int[4];
+        int size = 0;
+
+        void add(int id, int weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    public static void index(String key, String name, String description) {
+        remove(key);
+
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, name, NAME_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        if (terms.isEmpty()) return;
+
+        int id = allocateId();
+        IDS.put(key, id);
+        keys[id] = key;
+        documentTerms[id] = terms.keySet().toArray(new String[0]);
+
+        for (Map.Entry<String, Integer> e : terms.entrySet()) {
+            POSTINGS.computeIfAbsent(e.getKey(), t -> new Postings()).add(id, e.getValue());
+        }
+    }
+
+    public static void remove(String key) {
+        Integer id = IDS.remove(key);
+        if (id == null) return;
+
+        for (String term : documentTerms[id]) {
+            Postings postings = POSTINGS.get(term);
+            if (postings == null) continue;
+            postings.remove(id);
+            if (postings.size == 0) POSTINGS.remove(term);
+        }
+
+        keys[id] = null;
+        documentTerms[id] = null;
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    public static void rebuild(Map<String, String> texts, Map<String, String> originalNames) {
+        POSTINGS.clear();
+        IDS.clear();
+        Arrays.fill(keys, null);
+        Arrays.fill(documentTerms, null);
+        freeCount = 0;
+        nextId = 0;
+
+        for (Map.Entry<String, String> e : texts.entrySet()) {
+            index(e.getKey(), originalNames.getOrDefault(e.getKey(), e.getKey()), e.getValue());
+        }
+    }
+
+    public static List<String> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        List<String> results = new ArrayList<>();
+        if (queryTerms.isEmpty() || IDS.isEmpty() || limit <= 0) return results;
+
+        int documents = IDS.size();
+        for (int q = 0; q < queryTerms.size(); q++) {
+            String term = queryTerms.get(q);
+            int bit = 1 << Math.min(q, 30);
+
+            Postings exact = POSTINGS.get(term);
+            if (exact != null) {
+                accumulate(exact, idf(documents, exact.size), bit);
+            }
+
+            int scanned = 0;
+            for (Postings p : POSTINGS.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                if (++scanned > MAX_PREFIX_TERMS) break;
+                accumulate(p, idf(documents, p.size) * PREFIX_FACTOR, bit);
+            }
+        }
+
+        // Top-k by number of matched query words first, then by score.
+        int[] best = new int[Math.min(limit, touchedCount)];
+        int bestCount = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int id = touched[t];
+            if (bestCount == best.length && !better(id, best[bestCount - 1])) continue;
+
+            int pos = bestCount < best.length ? bestCount++ : bestCount - 1;
+            while (pos > 0 && better(id, best[pos - 1])) {
+                best[pos] = best[pos - 1];
+                pos--;
+            }
+            best[pos] = id;
+        }
+
+        for (int i = 0; i < bestCount; i++) {
+            results.add(keys[best[i]]);
+        }
+
+        for (int t = 0; t < touchedCount; t++) {
+            scores[touched[t]] = 0;
+            matched[touched[t]] = 0;
+        }
+        touchedCount = 0;
+        return results;
+    }
+
+    private static boolean better(int a, int b) {
+        int cmp = Integer.compare(Integer.bitCount(matched[a]), Integer.bitCount(matched[b]));
+        return cmp != 0 ? cmp > 0 : scores[a] > scores[b];
+    }
+
+    private static void accumulate(Postings postings, double idf, int bit) {
+        for (int i = 0; i < postings.size; i++) {
+            int id = postings.ids[i];
+            if (matched[id] == 0) touched[touchedCount++] = id;
+            scores[id] += idf * (1 + Math.log(postings.weights[i]));
+            matched[id] |= bit;
+        }
+    }
+
+    private static double idf(int documents, int documentFrequency) {
+        return Math.log(1 + (double) documents / documentFrequency);
+    }
+
+    private static int allocateId() {
+        if (freeCount > 0) return freeIds[--freeCount];
+
+        int id = nextId++;
+        if (id == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            matched = Arrays.copyOf(matched, capacity);
+            touched = Arrays.copyOf(touched, capacity);
+        }
+        return id;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        TextManagerNormalizer.normalize(text, BUFFER);
+        int start = 0;
+        for (int i = 0; i <= BUFFER.length(); i++) {
+            if (i == BUFFER.length() || BUFFER.charAt(i) == ' ') {
+                if (i > start) tokens.add(new String(BUFFER.chars, start, i - start));
+                start = i + 1;
+            }
+        }
+        return tokens;
+    }
+}
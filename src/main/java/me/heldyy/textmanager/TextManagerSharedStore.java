@@ -0,0 +1,324 @@
+package me.heldyy.textmanager;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Template library shared between several clients on one machine through a memory-mapped file.
+ *
+ * Header: magic, version, change sequence, payload length, CRC32; the payload uses the snapshot's text records.
+ * Writers hold an exclusive lock on a side file and merge their edits with whatever other clients published
+ * since the last sync, so concurrent edits to different templates are all kept. Readers only poll the
+ * sequence number and reload the records when it moves.
+ */
+public class TextManagerSharedStore {
+
+    private static final int MAGIC = 0x544D5348;
+    private static final int VERSION = 1;
+    private static final int SEQ_OFFSET = 8;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int CRC_OFFSET = 20;
+    private static final int HEADER_SIZE = 24;
+    private static final int INITIAL_SIZE = 1 << 20;
+    private static final int POLL_INTERVAL_TICKS = 10;
+
+    private static final Path FILE = FabricLoader.getInstance().getConfigDir().resolve("textmanager_shared.bin");
+    private static final Path LOCK_FILE = FabricLoader.getInstance().getConfigDir().resolve("textmanager_shared.lock");
+
+    private static FileChannel channel;
+    private static FileChannel lockChannel;
+    private static MappedByteBuffer map;
+
+    private static long lastSeq = -1;
+    private static Map<String, Entry> base = new LinkedHashMap<>();
+    private static int ticks = 0;
+    private static boolean registered = false;
+
+    private static final class Entry {
+        final String original;
+        final String description;
+
+        Entry(String original, String description) {
+            this.original = original;
+            this.description = description;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+            Entry e = (Entry) o;
+            return original.equals(e.original) && description.equals(e.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return original.hashCode() * 31 + description.hashCode();
+        }
+    }
+
+    public static void register() {
+        if (registered) return;
+        registered = true;
+        ClientTickEvents.END_CLIENT_TICK.register(mc -> {
+            if (map == null || ++ticks < POLL_INTERVAL_TICKS) return;
+            ticks = 0;
+            poll();
+        });
+    }
+
+    public static boolean isEnabled() {
+        return map != null;
+    }
+
+    // mergeLocal: keep local templates the shared file does not have yet (explicit /textshared on);
+    // otherwise the shared file is authoritative (startup, where the local copy may be stale).
+    public static synchronized void enable(boolean mergeLocal) {
+        try {
+            if (map == null) {
+                Files.createDirectories(FILE.getParent());
+                channel = FileChannel.open(FILE, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                lockChannel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_SIZE));
+            }
+
+            try (FileLock ignored = lockChannel.lock()) {
+                Map<String, Entry> shared = readShared();
+                if (shared == null) {
+                    Map<String, Entry> local = current();
+                    writeShared(local, 1);
+                    base = local;
+                } else if (mergeLocal) {
+                    Map<String, Entry> local = current();
+                    Map<String, Entry> merged = merge(new LinkedHashMap<>(), local, shared);
+                    if (!sameOrdered(merged, shared)) {
+                        writeShared(merged, map.getLong(SEQ_OFFSET) + 1);
+                    }
+                    base = merged;
+                    applyLocal(merged);
+                } else {
+                    base = shared;
+                    applyLocal(shared);
+                }
+            }
+        } catch (Exception e) {
+            disable();
+        }
+    }
+
+    public static synchronized void disable() {
+        try {
+            if (lockChannel != null) lockChannel.close();
+        } catch (Exception ignored) {}
+        try {
+            if (channel != null) channel.close();
+        } catch (Exception ignored) {}
+        lockChannel = null;
+        channel = null;
+        map = null;
+        lastSeq = -1;
+        base = new LinkedHashMap<>();
+    }
+
+    // Wraps every save: merge local edits into the shared file, bump the sequence number and write the config
+    // files while still holding the lock so clients never interleave their JSON writes.
+    static synchronized void publish(Runnable save) {
+        if (map == null) {
+            save.run();
+            return;
+        }
+
+        try (FileLock ignored = lockChannel.lock()) {
+            Map<String, Entry> local = current();
+            Map<String, Entry> shared = readShared();
+            long seq = map.getLong(SEQ_OFFSET);
+
+            Map<String, Entry> merged = shared == null ? local : merge(base, local, shared);
+            if (shared == null || !sameOrdered(merged, shared)) {
+                seq++;
+                writeShared(merged, seq);
+            }
+            lastSeq = seq;
+            base = merged;
+
+            if (!sameOrdered(merged, local)) {
+                applyLocal(merged);
+            }
+            save.run();
+        } catch (Exception e) {
+            disable();
+            save.run();
+        }
+    }
+
+    static synchronized void poll() {
+        if (map == null) return;
+
+        try {
+            if (map.getLong(SEQ_OFFSET) == lastSeq) return;
+
+            // Never block the client thread on another client's write; the next poll retries.
+            try (FileLock lock = lockChannel.tryLock(0, Long.MAX_VALUE, true)) {
+                if (lock == null) return;
+
+                Map<String, Entry> shared = readShared();
+                if (shared == null) return;
+
+                base = shared;
+                if (!sameOrdered(shared, current())) {
+                    applyLocal(shared);
+                }
+            }
+        } catch (Exception e) {
+            disable();
+        }
+    }
+
+    // Per key: a local change (including deletion) wins, otherwise the shared value is taken. Order follows the
+    // local list when templates were moved locally, the shared list otherwise.
+    private static Map<String, Entry> merge(Map<String, Entry> base, Map<String, Entry> local, Map<String, Entry> shared) {
+        boolean movedLocally = !relativeOrder(local, base).equals(relativeOrder(base, local));
+
+        Map<String, Entry> primary = movedLocally ? local : shared;
+        Map<String, Entry> secondary = movedLocally ? shared : local;
+
+        // Keys only the secondary list knows about are placed right after their predecessor there.
+        List<String> keys = new ArrayList<>(primary.keySet());
+        Set<String> seen = new HashSet<>(keys);
+        String prev = null;
+        for (String key : secondary.keySet()) {
+            if (seen.add(key)) {
+                keys.add(prev == null ? 0 : keys.indexOf(prev) + 1, key);
+            }
+            prev = key;
+        }
+
+        Map<String, Entry> merged = new LinkedHashMap<>();
+        for (String key : keys) {
+            Entry b = base.get(key);
+            Entry l = local.get(key);
+            Entry value = Objects.equals(b, l) ? shared.get(key) : l;
+            if (value != null) merged.put(key, value);
+        }
+        return merged;
+    }
+
+    private static List<String> relativeOrder(Map<String, Entry> order, Map<String, Entry> filter) {
+        List<String> keys = new ArrayList<>();
+        for (String key : order.keySet()) {
+            if (filter.containsKey(key)) keys.add(key);
+        }
+        return keys;
+    }
+
+    private static boolean sameOrdered(Map<String, Entry> a, Map<String, Entry> b) {
+        return a.equals(b) && new ArrayList<>(a.keySet()).equals(new ArrayList<>(b.keySet()));
+    }
+
+    private static Map<String, Entry> current() {
+        Map<String, String> texts = TextManager.getAllTexts();
+        Map<String, String> originals = TextManager.getAllOriginalNames();
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : texts.entrySet()) {
+            entries.put(e.getKey(), new Entry(originals.getOrDefault(e.getKey(), e.getKey()), e.getValue()));
+        }
+        return entries;
+    }
+
+    private static void applyLocal(Map<String, Entry> entries) {
+        // A template another client renamed shows up as one key gone and one new key with the same text;
+        // move hotkey slots over instead of letting loadTexts drop them.
+        Map<String, String> local = TextManager.getAllTexts();
+        for (Map.Entry<String, String> gone : local.entrySet()) {
+            if (entries.containsKey(gone.getKey())) continue;
+            for (Map.Entry<String, Entry> added : entries.entrySet()) {
+                if (!local.containsKey(added.getKey()) && added.getValue().description.equals(gone.getValue())) {
+                    TextManagerHotkeys.onTextRenamed(gone.getKey(), added.getKey());
+                    break;
+                }
+            }
+        }
+
+        Map<String, String> texts = new LinkedHashMap<>();
+        Map<String, String> originals = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            texts.put(e.getKey(), e.getValue().description);
+            originals.put(e.getKey(), e.getValue().original);
+        }
+        TextManager.loadTexts(texts, originals);
+    }
+
+    private static Map<String, Entry> readShared() throws Exception {
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) return null;
+
+        int length = map.getInt(LENGTH_OFFSET);
+        if (length < 4 || HEADER_SIZE + (long) length > channel.size()) return null;
+        if (HEADER_SIZE + length > map.capacity()) {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+
+        ByteBuffer payload = map.duplicate();
+        payload.position(HEADER_SIZE).limit(HEADER_SIZE + length);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != map.getInt(CRC_OFFSET)) return null;
+
+        Map<String, String> texts = new LinkedHashMap<>();
+        Map<String, String> originals = new LinkedHashMap<>();
+        TextManagerSnapshot.readRecords(payload, texts, originals);
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : texts.entrySet()) {
+            entries.put(e.getKey(), new Entry(originals.getOrDefault(e.getKey(), e.getKey()), e.getValue()));
+        }
+        lastSeq = map.getLong(SEQ_OFFSET);
+        return entries;
+    }
+
+    private static void writeShared(Map<String, Entry> entries, long seq) throws Exception {
+        Map<String, String> texts = new LinkedHashMap<>();
+        Map<String, String> originals = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            texts.put(e.getKey(), e.getValue().description);
+            originals.put(e.getKey(), e.getValue().original);
+        }
+
+        byte[][] records = TextManagerSnapshot.encodeRecords(texts, originals);
+        int length = TextManagerSnapshot.recordsLength(records);
+        if (HEADER_SIZE + length > map.capacity()) {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max((long) (HEADER_SIZE + length) * 2, INITIAL_SIZE));
+        }
+
+        ByteBuffer payload = map.duplicate();
+        payload.position(HEADER_SIZE);
+        TextManagerSnapshot.putRecords(payload, records);
+        payload.flip().position(HEADER_SIZE);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        map.putInt(0, MAGIC);
+        map.putInt(4, VERSION);
+        map.putInt(LENGTH_OFFSET, length);
+        map.putInt(CRC_OFFSET, (int) crc.getValue());
+        map.putLong(SEQ_OFFSET, seq);
+        lastSeq = seq;
+    }
+}
@@ -0,0 +1,196 @@
+package me.heldyy.textmanager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary copy of textmanager_config.json used for fast startup.
+ *
+ * Layout (big-endian): magic, format version, JSON mtime, JSON size, CRC32 of the payload, payload length,
+ * then the payload: closeChatAfterSend, sharedStore, hotkey slots and text records in display order.
+ * Every string is an int byte length followed by UTF-8 bytes.
+ */
+public class TextManagerSnapshot {
+
+    private static final int MAGIC = 0x544D534E;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+
+    public static class Data {
+        public final Map<String, String> texts = new LinkedHashMap<>();
+        public final Map<String, String> originalNames = new LinkedHashMap<>();
+        public final Map<String, String> hotkeys = new LinkedHashMap<>();
+        public boolean closeChatAfterSend = true;
+        public boolean sharedStore = false;
+    }
+
+    public static Data read(Path snapshot, Path json) {
+        try {
+            if (!Files.exists(snapshot) || !Files.exists(json)) return null;
+
+            long jsonModified = Files.getLastModifiedTime(json).toMillis();
+            long jsonSize = Files.size(json);
+
+            // Plain reads into heap buffers: a live mapping would keep Windows from replacing or deleting the
+            // file in write() for as long as the mapping is not garbage collected.
+            ByteBuffer buf;
+            int checksum;
+            try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                long size = ch.size();
+                if (size < HEADER_SIZE || size > Integer.MAX_VALUE) return null;
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                if (!readFully(ch, header)) return null;
+                header.flip();
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) return null;
+                if (header.getLong() != jsonModified || header.getLong() != jsonSize) return null;
+
+                checksum = header.getInt();
+                int payloadLength = header.getInt();
+                if (payloadLength != size - HEADER_SIZE) return null;
+
+                buf = ByteBuffer.allocate(payloadLength);
+                if (!readFully(ch, buf)) return null;
+                buf.flip();
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buf.duplicate());
+            if ((int) crc.getValue() != checksum) return null;
+
+            Data data = new Data();
+            data.closeChatAfterSend = buf.get() != 0;
+            data.sharedStore = buf.get() != 0;
+
+            int slotCount = buf.getInt();
+            for (int i = 0; i < slotCount; i++) {
+                String slot = readString(buf);
+                data.hotkeys.put(slot, readString(buf));
+            }
+
+            readRecords(buf, data.texts, data.originalNames);
+            return data;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static void write(Path snapshot, Path json, Data data) {
+        try {
+            int payloadLength = 1 + 1 + 4;
+            byte[][] slotBytes = new byte[data.hotkeys.size() * 2][];
+            int si = 0;
+            for (Map.Entry<String, String> e : data.hotkeys.entrySet()) {
+                slotBytes[si] = e.getKey().getBytes(StandardCharsets.UTF_8);
+                slotBytes[si + 1] = e.getValue().getBytes(StandardCharsets.UTF_8);
+                payloadLength += 8 + slotBytes[si].length + slotBytes[si + 1].length;
+                si += 2;
+            }
+
+            byte[][] records = encodeRecords(data.texts, data.originalNames);
+            payloadLength += recordsLength(records);
+
+            ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+            payload.put((byte) (data.closeChatAfterSend ? 1 : 0));
+            payload.put((byte) (data.sharedStore ? 1 : 0));
+            payload.putInt(data.hotkeys.size());
+            for (byte[] b : slotBytes) {
+                payload.putInt(b.length).put(b);
+            }
+            putRecords(payload, records);
+            payload.flip();
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putLong(Files.getLastModifiedTime(json).toMillis());
+            header.putLong(Files.size(json));
+            header.putInt((int) crc.getValue());
+            header.putInt(payloadLength);
+            header.flip();
+
+            Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) ch.write(header);
+                while (payload.hasRemaining()) ch.write(payload);
+            }
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            delete(snapshot);
+        }
+    }
+
+    private static boolean readFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) return false;
+        }
+        return true;
+    }
+
+    public static void delete(Path snapshot) {
+        try {
+            Files.deleteIfExists(snapshot);
+        } catch (IOException ignored) {}
+    }
+
+    // Text records are shared with TextManagerSharedStore: a count, then key, original name and description.
+    static byte[][] encodeRecords(Map<String, String> texts, Map<String, String> originalNames) {
+        byte[][] records = new byte[texts.size() * 3][];
+        int ri = 0;
+        for (Map.Entry<String, String> e : texts.entrySet()) {
+            String key = e.getKey();
+            records[ri] = key.getBytes(StandardCharsets.UTF_8);
+            records[ri + 1] = originalNames.getOrDefault(key, key).getBytes(StandardCharsets.UTF_8);
+            records[ri + 2] = (e.getValue() != null ? e.getValue() : "").getBytes(StandardCharsets.UTF_8);
+            ri += 3;
+        }
+        return records;
+    }
+
+    static int recordsLength(byte[][] records) {
+        int length = 4;
+        for (byte[] b : records) {
+            length += 4 + b.length;
+        }
+        return length;
+    }
+
+    static void putRecords(ByteBuffer buf, byte[][] records) {
+        buf.putInt(records.length / 3);
+        for (byte[] b : records) {
+            buf.putInt(b.length).put(b);
+        }
+    }
+
+    static void readRecords(ByteBuffer buf, Map<String, String> texts, Map<String, String> originalNames) {
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            String key = readString(buf);
+            originalNames.put(key, readString(buf));
+            texts.put(key, readString(buf));
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0 || length > buf.remaining()) {
+            throw new IllegalStateException("Corrupt snapshot record");
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,201 @@
+package me.heldyy.textmanager;
+
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.option.KeyBinding;
+import net.minecraft.client.util.InputUtil;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TextManagerSuggestions {
+
+    private static final int MARGIN = 6;
+    private static final int PADDING = 4;
+    private static final int MAX_WIDTH = 240;
+    private static final int BACKGROUND = 0xB0000000;
+    private static final int ACCENT = 0xFFFFAA00;
+
+    private static KeyBinding ACCEPT;
+    private static KeyBinding DISMISS;
+
+    private static String frozenPlayer = null;
+    private static long lastAutoSend = 0;
+    private static TextManagerRepeatDetector repeats = null;
+
+    private static String suggestedKey = null;
+    private static String suggestedName = null;
+    private static String suggestedDescription = null;
+    private static boolean suggestedForFrozen = false;
+
+    // Built once per suggestion (or scaled window width change); render() only reads these.
+    private static final List<OrderedText> LINES = new ArrayList<>();
+    private static int cachedWidth = -1;
+    private static int panelWidth = 0;
+    private static int panelHeight = 0;
+
+    public static void register() {
+        ACCEPT = KeyBindingHelper.registerKeyBinding(new KeyBinding(
+                "key.textmanager.accept", InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_Y, "category.textmanager"));
+        DISMISS = KeyBindingHelper.registerKeyBinding(new KeyBinding(
+                "key.textmanager.dismiss", InputUtil.Type.KEYSYM, GLFW.GLFW_KEY_N, "category.textmanager"));
+
+        ClientTickEvents.END_CLIENT_TICK.register(TextManagerSuggestions::onTick);
+        HudRenderCallback.EVENT.register(TextManagerSuggestions::render);
+    }
+
+    public static String getFrozenPlayer() {
+        return frozenPlayer;
+    }
+
+    static void setFrozenPlayer(String player) {
+        frozenPlayer = player;
+        dismiss();
+    }
+
+    public static void onChatMessage(String line, String sender) {
+        TextManagerRules rules = TextManagerConfig.getRules();
+        if (rules == null || !rules.isEnabled() || line == null) return;
+
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc == null || mc.player == null) return;
+
+        if (sender == null || sender.equalsIgnoreCase(mc.player.getName().getString())) return;
+        if (rules.isRequireFrozenPlayer() && !sender.equalsIgnoreCase(frozenPlayer)) return;
+
+        int bodyStart = TextManagerChatParser.bodyStart(line);
+        int rule = rules.match(line, bodyStart, line.length());
+        String textKey = rule >= 0 ? rules.get(rule).textKey : rules.isFallbackEnabled() ? rules.getFallbackTextKey() : null;
+        if (textKey == null) return;
+
+        // Only questions a real rule answered count; fallback replies and short answers ("да") never do.
+        int repeatCount = 0;
+        if (rule >= 0 && rules.isRepeatCheckEnabled()) {
+            if (repeats == null || repeats.getWindow() != rules.getRepeatWindow()
+                    || repeats.getMaxDistance() != rules.getRepeatMaxDistance()
+                    || repeats.getMinWords() != rules.getRepeatMinWords()) {
+                repeats = new TextManagerRepeatDetector(rules.getRepeatWindow(), rules.getRepeatMaxDistance(), rules.getRepeatMinWords());
+            }
+            repeatCount = repeats.record(sender, line, bodyStart, line.length());
+        }
+
+        String description = TextManager.getTextDescription(textKey);
+        String name = TextManager.getOriginalName(textKey);
+        if (description == null) {
+            description = rules.getText(textKey);
+            name = rules.getTextName(textKey);
+        }
+        if (description == null) return;
+
+        // Commands (bans) are never replaced: a repeated confession must still be answered with the ban.
+        if (rules.isRepeatCheckEnabled() && repeatCount + 1 >= rules.getRepeatLimit() && !description.trim().startsWith("/")) {
+            textKey = "repeatedQuestionAnswer";
+            name = "&e&lПовторный вопрос";
+            description = rules.getRepeatedQuestionAnswer();
+        }
+
+        // Auto-send only plain replies to the player under check; commands (bans) always wait for the accept key.
+        boolean frozenSender = frozenPlayer != null && sender.equalsIgnoreCase(frozenPlayer);
+        if (rules.isSuggestMode() || !frozenSender || description.trim().startsWith("/")) {
+            // Chat from other players must not replace a pending answer for the player under check.
+            if (!frozenSender && suggestedForFrozen) return;
+            suggest(textKey, name != null ? name : textKey, description);
+            suggestedForFrozen = frozenSender;
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastAutoSend < rules.getCooldownMs()) return;
+        lastAutoSend = now;
+        TextManager.sendDescription(mc, textKey, description);
+    }
+
+    static void suggest(String key, String name, String description) {
+        suggestedKey = key;
+        suggestedName = name;
+        suggestedDescription = description;
+        cachedWidth = -1;
+    }
+
+    static void dismiss() {
+        suggestedKey = null;
+        suggestedName = null;
+        suggestedDescription = null;
+        suggestedForFrozen = false;
+        LINES.clear();
+        cachedWidth = -1;
+    }
+
+    private static void onTick(MinecraftClient mc) {
+        if (ACCEPT == null || DISMISS == null) return;
+
+        boolean accept = false;
+        while (ACCEPT.wasPressed()) accept = true;
+        boolean dismiss = false;
+        while (DISMISS.wasPressed()) dismiss = true;
+
+        if (suggestedDescription == null) return;
+
+        if (accept) {
+            String key = suggestedKey;
+            String description = suggestedDescription;
+            dismiss();
+            TextManager.sendDescription(mc, key, description);
+        } else if (dismiss) {
+            dismiss();
+        }
+    }
+
+    private static void render(DrawContext ctx, float tickDelta) {
+        if (suggestedDescription == null) return;
+
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc == null || mc.options == null || mc.options.hudHidden || mc.textRenderer == null) return;
+
+        TextRenderer tr = mc.textRenderer;
+        int width = Math.min(MAX_WIDTH, ctx.getScaledWindowWidth() / 3);
+        if (width != cachedWidth) {
+            rebuild(tr, width);
+        }
+
+        int x = ctx.getScaledWindowWidth() - panelWidth - MARGIN;
+        int y = MARGIN;
+        ctx.fill(x, y, x + panelWidth, y + panelHeight, BACKGROUND);
+        ctx.fill(x, y, x + 1, y + panelHeight, ACCENT);
+
+        int ty = y + PADDING;
+        for (int i = 0; i < LINES.size(); i++) {
+            ctx.drawTextWithShadow(tr, LINES.get(i), x + PADDING, ty, 0xFFFFFF);
+            ty += tr.fontHeight + 1;
+        }
+    }
+
+    private static void rebuild(TextRenderer tr, int width) {
+        LINES.clear();
+
+        LINES.add(Text.literal("§6[TextManager] §r" + suggestedName.replace("&", "§")).asOrderedText());
+        LINES.addAll(tr.wrapLines(Text.literal(suggestedDescription.replace("&", "§")), width));
+        LINES.add(Text.literal("§7[")
+                .append(ACCEPT.getBoundKeyLocalizedText())
+                .append(Text.literal("§7] отправить  ["))
+                .append(DISMISS.getBoundKeyLocalizedText())
+                .append(Text.literal("§7] скрыть"))
+                .asOrderedText());
+
+        int maxLineWidth = 0;
+        for (int i = 0; i < LINES.size(); i++) {
+            maxLineWidth = Math.max(maxLineWidth, tr.getWidth(LINES.get(i)));
+        }
+
+        panelWidth = maxLineWidth + PADDING * 2;
+        panelHeight = LINES.size() * (tr.fontHeight + 1) - 1 + PADDING * 2;
+        cachedWidth = width;
+    }
+}
@@ -0,0 +1,49 @@
+package me.heldyy.textmanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextManagerNormalizerTest {
+
+    @Test
+    void bundledTriggersFoldCase() throws Exception {
+        TextManagerRules rules = TextManagerRules.load(Paths.get("textmanager_ai_config.json"));
+        int latin = 0;
+        for (int r = 0; r < rules.size(); r++) {
+            for (String trigger : rules.get(r).triggers) {
+                if (!trigger.matches(".*[A-Za-z].*")) continue;
+                latin++;
+                assertEquals(TextManagerNormalizer.normalize(trigger),
+                        TextManagerNormalizer.normalize(trigger.toUpperCase(Locale.ROOT)), trigger);
+            }
+        }
+        assertTrue(latin > 0);
+    }
+
+    @Test
+    void upperCaseMessagesMatchLatinTriggers() throws Exception {
+        TextManagerRules rules = TextManagerRules.load(Paths.get("textmanager_ai_config.json"));
+        assertEquals(rules.match("ya chiter"), rules.match("YA CHITER"));
+        assertEquals(rules.match("i am cheater"), rules.match("I AM CHEATER"));
+        assertTrue(rules.match("I AM CHEATER") >= 0);
+    }
+
+    @Test
+    void lookAlikesFoldToCyrillic() {
+        assertEquals(TextManagerNormalizer.normalize("читер"), TextManagerNormalizer.normalize("ЧИTEP"));
+        assertEquals(TextManagerNormalizer.normalize("вот"), TextManagerNormalizer.normalize("BOT"));
+        assertEquals(TextManagerNormalizer.normalize("BOT"), TextManagerNormalizer.normalize("bot"));
+    }
+
+    @Test
+    void punctuationSeparatesWordsUnlessSpelledOut() {
+        assertEquals("я читер", TextManagerNormalizer.normalize("я,читер"));
+        assertEquals("я читер", TextManagerNormalizer.normalize("я.читер"));
+        assertEquals("читер", TextManagerNormalizer.normalize("ч.и.т.е.р"));
+    }
+}
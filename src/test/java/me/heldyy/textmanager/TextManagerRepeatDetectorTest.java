@@ -0,0 +1,80 @@
+package me.heldyy.textmanager;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextManagerRepeatDetectorTest {
+
+    private static final String[][] PARAPHRASES = {
+            {"за что проверка??", "ЗА ЧТО ПРОВЕРКА !!!"},
+            {"за что проверка", "а за что проверка"},
+            {"у меня нет аника", "у меня нету аника"},
+            {"где скачать anydesk", "где скачать AnyDesk?"},
+            {"можно я выйду с сервера", "можно выйду с сервера"},
+    };
+
+    private static final String[][] NEAR_MISSES = {
+            {"за что проверка", "за что бан"},
+            {"за что проверка", "когда закончится проверка"},
+            {"у меня нет аника", "у меня нет браузера"},
+            {"как скачать anydesk", "как удалить anydesk"},
+            {"сколько длится проверка", "сколько стоит разбан"},
+    };
+
+    private static int record(TextManagerRepeatDetector detector, String sender, String message) {
+        return detector.record(sender, message, 0, message.length());
+    }
+
+    @Test
+    void paraphrasesCountAsRepeats() {
+        for (String[] pair : PARAPHRASES) {
+            TextManagerRepeatDetector detector = new TextManagerRepeatDetector(8, 13, 1);
+            assertEquals(0, record(detector, "Player", pair[0]), pair[0]);
+            assertEquals(1, record(detector, "Player", pair[1]), pair[0] + " / " + pair[1]);
+        }
+    }
+
+    @Test
+    void nearMissesAreNotRepeats() {
+        for (String[] pair : NEAR_MISSES) {
+            TextManagerRepeatDetector detector = new TextManagerRepeatDetector(8, 13, 1);
+            record(detector, "Player", pair[0]);
+            assertEquals(0, record(detector, "Player", pair[1]), pair[0] + " / " + pair[1]);
+        }
+    }
+
+    @Test
+    void shortAnswersAreIgnored() {
+        TextManagerRepeatDetector detector = new TextManagerRepeatDetector(8, 13, 3);
+        record(detector, "Player", "Да");
+        assertEquals(0, record(detector, "Player", "да"));
+        record(detector, "Player", "ок");
+        assertEquals(0, record(detector, "Player", "ок"));
+    }
+
+    @Test
+    void repeatsAreCounted() {
+        TextManagerRepeatDetector detector = new TextManagerRepeatDetector(8, 13, 3);
+        record(detector, "Player", "за что проверка");
+        assertEquals(1, record(detector, "Player", "за что проверка?"));
+        assertEquals(2, record(detector, "Player", "ЗА ЧТО ПРОВЕРКА"));
+    }
+
+    @Test
+    void sendersAreTrackedSeparately() {
+        TextManagerRepeatDetector detector = new TextManagerRepeatDetector(8, 13, 3);
+        record(detector, "First", "за что проверка");
+        assertEquals(0, record(detector, "Second", "за что проверка"));
+        assertEquals(1, record(detector, "first", "за что проверка"));
+    }
+
+    @Test
+    void windowForgetsOldMessages() {
+        TextManagerRepeatDetector detector = new TextManagerRepeatDetector(2, 13, 3);
+        record(detector, "Player", "за что проверка");
+        record(detector, "Player", "у меня нет аника");
+        record(detector, "Player", "сколько стоит разбан");
+        assertEquals(0, record(detector, "Player", "за что проверка"));
+    }
+}
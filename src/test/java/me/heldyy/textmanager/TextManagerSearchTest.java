@@ -0,0 +1,50 @@
+package me.heldyy.textmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextManagerSearchTest {
+
+    @BeforeEach
+    void index() {
+        Map<String, String> texts = new LinkedHashMap<>();
+        Map<String, String> names = new LinkedHashMap<>();
+        texts.put("установка trustviewer", "&aСкачайте TrustViewer с официального сайта");
+        names.put("установка trustviewer", "&a&lУстановка TrustViewer");
+        texts.put("забанить \"признание\"", "/hm sban 30d Признание");
+        names.put("забанить \"признание\"", "&4&lБан: Признание");
+        texts.put("для телефона", "&aAnyDesk для телефона есть в Play Market");
+        names.put("для телефона", "&a&lAnyDesk для телефона");
+        TextManagerSearch.rebuild(texts, names);
+    }
+
+    @Test
+    void queriesIgnoreCase() {
+        for (String[] q : new String[][]{{"trustviewer", "TRUSTVIEWER"}, {"hm", "HM"}, {"признание", "ПРИЗНАНИЕ"}, {"anydesk", "AnyDesk"}}) {
+            List<String> lower = TextManagerSearch.search(q[0], 10);
+            assertEquals(lower, TextManagerSearch.search(q[1], 10), q[1]);
+            assertEquals(1, lower.size(), q[0]);
+        }
+    }
+
+    @Test
+    void findsTemplatesByBodyAndName() {
+        assertEquals(List.of("установка trustviewer"), TextManagerSearch.search("TrustViewer", 10));
+        assertEquals(List.of("забанить \"признание\""), TextManagerSearch.search("HM 30d", 10));
+        assertEquals(List.of("для телефона"), TextManagerSearch.search("телефон", 10));
+    }
+
+    @Test
+    void incrementalUpdates() {
+        TextManagerSearch.remove("для телефона");
+        assertEquals(List.of(), TextManagerSearch.search("anydesk", 10));
+        TextManagerSearch.index("нет anydesk", "&a&lНет AnyDesk", "Скачайте ANYDESK");
+        assertEquals(List.of("нет anydesk"), TextManagerSearch.search("anydesk", 10));
+    }
+}